@@ -0,0 +1,52 @@
+package nqueens;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Measures breeding a single generation, for serial and fork-join breeding.
+ * Run with -prof gc to see the allocation rate per generation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class GeneticAlgorithmBenchmark {
+	@Param({"8", "64", "512"})
+	public int n;
+	@Param({"20", "200", "2000"})
+	public int populationSize;
+	@Param({"false", "true"})
+	public boolean parallel;
+	private GeneticAlgorithm geneticAlgorithm;
+	private final long SEED = 42;
+	private final double CHANCE_FOR_MUTATION = 0.4;
+	
+	@Setup
+	public void createPopulation() {
+		ForkJoinPool pool = parallel ? ForkJoinPool.commonPool() : null;
+		geneticAlgorithm = new GeneticAlgorithm(n, Integer.MAX_VALUE, populationSize, 2*populationSize, 
+				CHANCE_FOR_MUTATION, new SplittableRandom(SEED), pool);
+	}
+	
+	/**
+	 * Breeds, scores and selects one generation.
+	 */
+	@Benchmark
+	public int reproduceNewGeneration() {
+		geneticAlgorithm.evolveOneGeneration();
+		return geneticAlgorithm.getBestFitness();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package nqueens;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Measures whole solves from a fresh random board, including runs that 
+ * hit the iteration limit without a solution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class SolveBenchmark {
+	@Param({"8", "32", "128"})
+	public int n;
+	@Param({"annealing", "annealingPermutation", "genetic", "geneticPermutation", "minConflicts"})
+	public String algorithm;
+	private SplittableRandom random;
+	private SimulatedAnnealing annealing;
+	private GeneticAlgorithm genetic;
+	private MinConflicts minConflicts;
+	private final long SEED = 42;
+	private final int MAX_MOVES = 1_000_000;
+	private final int MAX_GENERATIONS = 10_000;
+	private final boolean PRINT_BOARD = false;
+	
+	@Setup(Level.Trial)
+	public void createRandom() {
+		random = new SplittableRandom(SEED);
+	}
+	
+	@Setup(Level.Invocation)
+	public void createSolver() {
+		annealing = null;
+		genetic = null;
+		minConflicts = null;
+		
+		if(algorithm.startsWith("annealing")) {
+			annealing = new SimulatedAnnealing(n, MAX_MOVES, random.split());
+			if(algorithm.endsWith("Permutation")) {
+				annealing.usePermutationEncoding();
+			}
+		}else if(algorithm.startsWith("genetic")) {
+			genetic = new GeneticAlgorithm(n, MAX_GENERATIONS, random.split());
+			if(algorithm.endsWith("Permutation")) {
+				genetic.usePermutationEncoding();
+			}
+		}else {
+			minConflicts = new MinConflicts(n, MAX_MOVES, random.split());
+		}//every invocation solves a new board
+	}
+	
+	@Benchmark
+	public boolean solve() {
+		if(annealing != null) {
+			return annealing.solve(PRINT_BOARD);
+		}else if(genetic != null) {
+			return genetic.solve(PRINT_BOARD);
+		}
+		return minConflicts.solve(PRINT_BOARD);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+package nqueens;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+/**
+ * Measures the board operations every solver is built on. Run with -prof gc
+ * to see the allocation rate of each one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+public class StateBenchmark {
+	@Param({"8", "64", "1024", "16384"})
+	public int n;
+	private State board;
+	private FitnessEvaluator evaluator;
+	private int[] placements;
+	private SplittableRandom random;
+	private int cost;
+	private final long SEED = 42;
+	private final double TEMPERATURE = 1.0;
+	
+	@Setup
+	public void createBoard() {
+		random = new SplittableRandom(SEED);
+		board = new State(n, random);
+		placements = new int[n];
+		for(int column = 0; column < n; ++column) {
+			placements[column] = board.getQueenPlacement(column);
+		}
+		cost = board.getCost();
+		evaluator = new FitnessEvaluator(n);
+	}
+	
+	/**
+	 * Reads the running cost of a board.
+	 */
+	@Benchmark
+	public int getCost() {
+		return board.getCost();
+	}
+	
+	/**
+	 * Counts the conflicts of a whole board from scratch, which is what 
+	 * scoring a newly bred child costs.
+	 */
+	@Benchmark
+	public int countConflictsOfWholeBoard() {
+		board.setQueenPlacements(placements);
+		return board.getCost();
+	}
+	
+	/**
+	 * Counts the conflicts of a whole board straight from its genes, which is
+	 * how a population is scored.
+	 */
+	@Benchmark
+	public int countConflictsWithEvaluator() {
+		return evaluator.getCost(placements, 0);
+	}
+	
+	/**
+	 * Scores a random move without making it.
+	 */
+	@Benchmark
+	public int getCostDelta() {
+		return board.getCostDelta(random.nextInt(n), random.nextInt(n));
+	}
+	
+	/**
+	 * Makes an accepted simulated annealing move, trying as many moves as it takes.
+	 */
+	@Benchmark
+	public int makeMoveOnBoard() {
+		cost = board.makeMoveOnBoard(cost, TEMPERATURE, random);
+		return cost;
+	}
+	
+	/**
+	 * Tries a single simulated annealing move.
+	 */
+	@Benchmark
+	public int attemptMove() {
+		cost = board.attemptMove(cost, TEMPERATURE, random);
+		return cost;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package nqueens;
+
+import java.nio.ByteBuffer;
+public class AdaptiveCooling implements CoolingSchedule {
+	private double startingTemperature;
+	private double targetUphillShare;
+	private double coolingFactor;
+	private int movesPerWindow;
+	private int movesInWindow;
+	private int uphillMovesInWindow;
+
+	/**
+	 * Creates a schedule that cools by how freely the search moves. After every 
+	 * window of moves it cools if more of the accepted moves raised the cost 
+	 * than the target, and holds the temperature otherwise, so it cools quickly
+	 * while the board is hot and waits once it has settled. Unlike the share 
+	 * of proposals accepted, the share of uphill moves does not shrink as the 
+	 * board grows, so the same target suits any n.
+	 * @param startingTemperature - the temperature at the start.
+	 * @param targetUphillShare - the share of accepted moves that may raise the cost, between 0 and 1.
+	 * @param coolingFactor - how much the temperature drops after a window, between 0 and 1.
+	 * @param movesPerWindow - how many accepted moves make up a window.
+	 */
+	public AdaptiveCooling(double startingTemperature, double targetUphillShare, double coolingFactor, int movesPerWindow) {
+		if(startingTemperature <= 0 || targetUphillShare <= 0 || targetUphillShare >= 1 
+				|| coolingFactor <= 0 || coolingFactor >= 1 || movesPerWindow < 1) {
+			throw new IllegalArgumentException("Need a positive temperature and window, and a target share and cooling factor between 0 and 1");
+		}
+		this.startingTemperature = startingTemperature;
+		this.targetUphillShare = targetUphillShare;
+		this.coolingFactor = coolingFactor;
+		this.movesPerWindow = movesPerWindow;
+	}
+
+	@Override
+	public double restart() {
+		movesInWindow = 0;
+		uphillMovesInWindow = 0;
+		return startingTemperature;
+	}
+
+	@Override
+	public double cool(double temperature, int iteration, long movesProposed, int costChange) {
+		++movesInWindow;
+		if(costChange > 0) {
+			++uphillMovesInWindow;
+		}
+		if(movesInWindow < movesPerWindow) {
+			return temperature;
+		}
+		
+		double uphillShare = (double)uphillMovesInWindow / movesInWindow;
+		movesInWindow = 0;
+		uphillMovesInWindow = 0;
+		return (uphillShare > targetUphillShare) ? temperature * coolingFactor : temperature;
+	}
+
+	@Override
+	public int getParametersSize() {
+		return 3*Double.BYTES + Integer.BYTES;
+	}
+
+	@Override
+	public void saveParameters(ByteBuffer buffer) {
+		buffer.putDouble(startingTemperature).putDouble(targetUphillShare).putDouble(coolingFactor).putInt(movesPerWindow);
+	}
+
+	@Override
+	public int getStateSize() {
+		return 2*Integer.BYTES;
+	}
+
+	@Override
+	public void saveState(ByteBuffer buffer) {
+		buffer.putInt(movesInWindow).putInt(uphillMovesInWindow);
+	}
+
+	@Override
+	public void restoreState(ByteBuffer buffer) {
+		movesInWindow = buffer.getInt();
+		uphillMovesInWindow = buffer.getInt();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,96 @@
+package nqueens;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+/**
+ * Writes and reads the checkpoint files of the solvers. A file holds a header
+ * naming the solver it belongs to, the solver's state and a checksum of it.
+ */
+class Checkpoint {
+	static final int SIMULATED_ANNEALING = 1;
+	static final int GENETIC_ALGORITHM = 2;
+	private static final int MAGIC = 0x4E514350;
+	private static final int VERSION = 2;
+	private static final int HEADER_SIZE = 4 * Integer.BYTES;
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+
+	private Checkpoint() {
+	}
+
+	/**
+	 * Replaces a checkpoint file. The state is written to a temporary file
+	 * next to it, forced to the disk and then moved over the old file in one
+	 * step, so a crash leaves either the old checkpoint or the new one.
+	 * @param file - the checkpoint file.
+	 * @param solver - which solver the state belongs to.
+	 * @param state - the state, from its position to its limit.
+	 * @throws IOException if the file cannot be written.
+	 */
+	static void write(Path file, int solver, ByteBuffer state) throws IOException {
+		CRC32 checksum = new CRC32();
+		checksum.update(state.duplicate());
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(VERSION).putInt(solver).putInt(state.remaining()).flip();
+		ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+		trailer.putLong(checksum.getValue()).flip();
+
+		Path temporaryFile = file.resolveSibling(file.getFileName() + TEMPORARY_SUFFIX);
+		try(FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer[] parts = {header, state, trailer};
+			while(trailer.hasRemaining()) {
+				channel.write(parts);
+			}//one gathering write, repeated only if the channel takes less than everything
+			channel.force(true);
+		}
+		Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Reads the state out of a checkpoint file, checking that it is whole.
+	 * @param file - the checkpoint file.
+	 * @param solver - which solver the state has to belong to.
+	 * @return the state, positioned at its start.
+	 * @throws IOException if the file cannot be read, belongs to another solver or is damaged.
+	 */
+	static ByteBuffer read(Path file, int solver) throws IOException {
+		ByteBuffer contents;
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if(channel.size() < HEADER_SIZE + Long.BYTES || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is not a checkpoint");
+			}
+			contents = ByteBuffer.allocate((int)channel.size());
+			while(contents.hasRemaining()) {
+				if(channel.read(contents) < 0) {
+					throw new IOException(file + " is damaged");
+				}
+			}
+			contents.flip();
+		}
+
+		if(contents.getInt() != MAGIC || contents.getInt() != VERSION) {
+			throw new IOException(file + " is not a checkpoint");
+		}
+		if(contents.getInt() != solver) {
+			throw new IOException(file + " belongs to a different solver");
+		}
+		int stateSize = contents.getInt();
+		if(stateSize != contents.remaining() - Long.BYTES) {
+			throw new IOException(file + " is damaged");
+		}
+
+		ByteBuffer state = contents.slice(contents.position(), stateSize);
+		CRC32 checksum = new CRC32();
+		checksum.update(state.duplicate());
+		if(checksum.getValue() != contents.getLong(contents.position() + stateSize)) {
+			throw new IOException(file + " is damaged");
+		}
+		return state;
+	}
+}
\ No newline at end of file
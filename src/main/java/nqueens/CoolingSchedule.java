@@ -0,0 +1,67 @@
+package nqueens;
+
+import java.nio.ByteBuffer;
+/**
+ * Decides the temperature of simulated annealing after every accepted move.
+ * A schedule may keep track of the moves it has seen, so every simulator 
+ * needs its own.
+ */
+public interface CoolingSchedule {
+
+	/**
+	 * Gets the temperature a solve starts at, and starts at again when it gives
+	 * up on its board for a new random one. Reheats do not restart the schedule,
+	 * they go back to the temperature the best cost was found at. Anything the 
+	 * schedule learned about earlier moves is forgotten.
+	 * @return the starting temperature.
+	 */
+	double restart();
+
+	/**
+	 * Cools the temperature after a move was accepted.
+	 * @param temperature - the temperature the move was accepted at.
+	 * @param iteration - how many moves have been accepted since the last restart.
+	 * @param movesProposed - how many moves were proposed before one was accepted, including it.
+	 * @param costChange - how much the accepted move raised the cost, negative if it lowered it.
+	 * @return the temperature for the next move.
+	 */
+	double cool(double temperature, int iteration, long movesProposed, int costChange);
+
+	/**
+	 * Gets how many bytes saveParameters writes, so checkpoints know their size up front.
+	 * @return the size of the schedule's parameters, 0 if it has none.
+	 */
+	default int getParametersSize() {
+		return 0;
+	}
+
+	/**
+	 * Saves the parameters the schedule was created with, so a checkpoint can
+	 * tell whether it is resumed with the same schedule.
+	 * @param buffer - the buffer to write getParametersSize bytes to.
+	 */
+	default void saveParameters(ByteBuffer buffer) {
+	}
+
+	/**
+	 * Gets how many bytes saveState writes, so checkpoints know their size up front.
+	 * @return the size of the schedule's state, 0 if it keeps none.
+	 */
+	default int getStateSize() {
+		return 0;
+	}
+
+	/**
+	 * Saves what the schedule has learned during a solve, for a checkpoint.
+	 * @param buffer - the buffer to write getStateSize bytes to.
+	 */
+	default void saveState(ByteBuffer buffer) {
+	}
+
+	/**
+	 * Restores what saveState saved.
+	 * @param buffer - the buffer to read getStateSize bytes from.
+	 */
+	default void restoreState(ByteBuffer buffer) {
+	}
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package nqueens;
+
+import java.util.Arrays;
+public class Distribution {
+	private double[] values;
+	private int numberOfValues;
+	private boolean sorted;
+
+	/**
+	 * Creates an empty distribution.
+	 * @param expectedNumberOfValues - how many values to make room for, it grows past that if needed.
+	 */
+	public Distribution(int expectedNumberOfValues) {
+		values = new double[Math.max(1, expectedNumberOfValues)];
+	}
+
+	/**
+	 * Adds a value to the distribution.
+	 * @param value - the value to add.
+	 */
+	public void record(double value) {
+		if(numberOfValues == values.length) {
+			values = Arrays.copyOf(values, 2*values.length);
+		}
+		values[numberOfValues++] = value;
+		sorted = false;
+	}
+
+	/**
+	 * Gets how many values were recorded.
+	 * @return the number of values.
+	 */
+	public int getCount() {
+		return numberOfValues;
+	}
+
+	/**
+	 * Averages the recorded values.
+	 * @return the mean, 0 if nothing was recorded.
+	 */
+	public double getMean() {
+		double total = 0;
+		for(int value = 0; value < numberOfValues; ++value) {
+			total += values[value];
+		}
+		return numberOfValues == 0 ? 0 : total / numberOfValues;
+	}
+
+	/**
+	 * Gets the smallest recorded value that at least a share of the values are not above.
+	 * Every value is kept, so the percentile is exact rather than the edge of a bucket.
+	 * @param percentile - the share of values, between 0 and 100.
+	 * @return the value at the percentile, 0 if nothing was recorded.
+	 */
+	public double getPercentile(double percentile) {
+		if(numberOfValues == 0) {
+			return 0;
+		}
+		if(!sorted) {
+			Arrays.sort(values, 0, numberOfValues);
+			sorted = true;
+		}
+		int rank = (int)Math.ceil(percentile * numberOfValues / 100);
+		return values[Math.min(numberOfValues, Math.max(1, rank)) - 1];
+		//nearest rank, so the 100th percentile is the largest value
+	}
+
+	/**
+	 * Gets the largest recorded value.
+	 * @return the maximum, 0 if nothing was recorded.
+	 */
+	public double getMax() {
+		return getPercentile(100);
+	}
+}
\ No newline at end of file
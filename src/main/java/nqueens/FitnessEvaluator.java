@@ -0,0 +1,74 @@
+package nqueens;
+
+import java.util.Arrays;
+public class FitnessEvaluator {
+	private int n;
+	private int highestFitness;
+	private int[] queensInRow;
+	private int[] queensInDiagonal;
+	private int[] queensInAntiDiagonal;
+
+	/**
+	 * Creates an evaluator that scores boards stored as the row of the queen
+	 * in every column, the way the genetic algorithm stores its members. An
+	 * evaluator keeps a counter per line to reuse, so every thread needs its own.
+	 * @param n - the number of queens on every board, at most GeneticAlgorithm.MAX_QUEENS.
+	 */
+	public FitnessEvaluator(int n) {
+		if(n < 1 || n > GeneticAlgorithm.MAX_QUEENS) {
+			throw new IllegalArgumentException("Need 1 to " + GeneticAlgorithm.MAX_QUEENS + " queens");
+		}
+		this.n = n;
+		highestFitness = (int)((long)n*(n-1)/2);
+		final int numberOfDiagonals = 2*n - 1;
+		queensInRow = new int[n];
+		queensInDiagonal = new int[numberOfDiagonals];
+		queensInAntiDiagonal = new int[numberOfDiagonals];
+	}
+
+	/**
+	 * Scores a run of boards stored one after another, n genes each.
+	 * @param boards - the genes of the boards.
+	 * @param firstBoard - the position of the first board to score, counted in boards.
+	 * @param numberOfBoards - how many boards to score.
+	 * @param fitness - receives the fitness of every board at the board's position.
+	 */
+	public void evaluate(int[] boards, int firstBoard, int numberOfBoards, int[] fitness) {
+		int lastBoard = firstBoard + numberOfBoards;
+		for(int board = firstBoard; board < lastBoard; ++board) {
+			fitness[board] = highestFitness - getCost(boards, board*n);
+		}
+	}
+
+	/**
+	 * Scores a single board.
+	 * @param boards - the array holding the board's genes.
+	 * @param firstGene - the position of the board's first gene.
+	 * @return the fitness of the board, like State.getFitness.
+	 */
+	public int getFitness(int[] boards, int firstGene) {
+		return highestFitness - getCost(boards, firstGene);
+	}
+
+	/**
+	 * Counts the pairs of queens sharing a row or a diagonal, like State.getCost.
+	 * The genes are read where they are, so nothing is copied, and the 
+	 * counters are cleared in bulk, which beats undoing each queen.
+	 * @param boards - the array holding the board's genes.
+	 * @param firstGene - the position of the board's first gene.
+	 * @return the cost of the board.
+	 */
+	public int getCost(int[] boards, int firstGene) {
+		Arrays.fill(queensInRow, 0);
+		Arrays.fill(queensInDiagonal, 0);
+		Arrays.fill(queensInAntiDiagonal, 0);
+		int cost = 0;
+		for(int column = 0; column < n; ++column) {
+			int row = boards[firstGene + column];
+			cost += queensInRow[row]++;
+			cost += queensInDiagonal[row + column]++;
+			cost += queensInAntiDiagonal[row - column + n - 1]++;
+		}
+		return cost;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,1136 @@
+package nqueens;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+public class GeneticAlgorithm {
+	private int[] population;
+	private int[] nextPopulation;
+	private int[] populationFitness;
+	private int[] offspring;
+	private int[] offspringFitness;
+	//members are stored one after another, n genes each, so a generation lives in a single array
+	private long[] offspringHashes;
+	private int[] selectionFitness;
+	private long[] seenHashes;
+	private int[] survivors;
+	private long[] offspringKeys;
+	private Workspace workspace;
+	private Workspace[] taskWorkspaces;
+	private SplittableRandom random;
+	private ForkJoinPool pool;
+	private SolverListener listener;
+	private int n;
+	private int numberOfIterations;
+	private double runTime;
+	private int highestFitness;
+	private int maxNumberOfIterations;
+	private int populationSize;
+	private int numberOfOffspring;
+	private int sizeOfFirstHalf;
+	private long boardsEvaluated;
+	private int tournamentSize;
+	private boolean permutationEncoding;
+	private boolean rejectDuplicates;
+	private boolean stoppedEarly;
+	private double chanceForMutation;
+	private int numberOfRefinedOffspring;
+	private int movesPerRefinement;
+	private int iteration;
+	private double runTimeBeforeResume;
+	private boolean resumed;
+	private Path checkpointFile;
+	private long checkpointInterval;
+	private long seed;
+	private ByteBuffer checkpointBuffer;
+	public static final int MAX_QUEENS = 65_536;
+	//the most queens whose number of pairs, the highest fitness, fits in an int
+	private static final int DEFAULT_POPULATION_SIZE = 20;
+	private static final int DEFAULT_NUMBER_OF_OFFSPRING = DEFAULT_POPULATION_SIZE + DEFAULT_POPULATION_SIZE;
+	private static final double DEFAULT_CHANCE_FOR_MUTATION = 0.4;
+	private static final int TRUNCATION_SELECTION = 0;
+	private static final int DISCARDED = -1;
+	private static final long NO_TIME_LIMIT = Long.MAX_VALUE;
+	private static final double REFINEMENT_TEMPERATURE = 0.05;
+	//cold enough that only moves keeping the cost are taken besides improving ones
+	private static final int QUEENS_PER_TASK = 1 << 12;
+	private static final int CHECKPOINT_SIZE_WITHOUT_POPULATION = 8*Integer.BYTES + 3*Long.BYTES + 2*Double.BYTES + 2;
+	
+	
+	public GeneticAlgorithm(int n, int maxNumberOfIterations) {
+		this(n, maxNumberOfIterations, new SplittableRandom());
+	}
+	
+	/**
+	 * Creates a simulator that draws all of its random numbers from the given source.
+	 * @param n - the number of queens.
+	 * @param maxNumberOfIterations - the generation limit of a run.
+	 * @param random - the source of randomness, owned by this simulator from now on.
+	 */
+	public GeneticAlgorithm(int n, int maxNumberOfIterations, SplittableRandom random) {
+		this(n, maxNumberOfIterations, random, null);
+	}
+	
+	/**
+	 * Creates a simulator that breeds each new generation on a fork-join pool.
+	 * @param n - the number of queens.
+	 * @param maxNumberOfIterations - the generation limit of a run.
+	 * @param random - the source of randomness, owned by this simulator from now on.
+	 * @param pool - the pool the offspring are created on, or null to create them on the calling thread.
+	 */
+	public GeneticAlgorithm(int n, int maxNumberOfIterations, SplittableRandom random, ForkJoinPool pool) {
+		this(n, maxNumberOfIterations, DEFAULT_POPULATION_SIZE, DEFAULT_NUMBER_OF_OFFSPRING, DEFAULT_CHANCE_FOR_MUTATION, random, pool);
+	}
+	
+	/**
+	 * Creates a simulator with a population of any size.
+	 * @param n - the number of queens, at most MAX_QUEENS.
+	 * @param maxNumberOfIterations - the generation limit of a run.
+	 * @param populationSize - how many members survive each generation.
+	 * @param numberOfOffspring - how many children are bred each generation, at least the population size.
+	 * @param chanceForMutation - the probability of mutating a pair of children.
+	 * @param random - the source of randomness, owned by this simulator from now on.
+	 * @param pool - the pool the offspring are created on, or null to create them on the calling thread.
+	 */
+	public GeneticAlgorithm(int n, int maxNumberOfIterations, int populationSize, int numberOfOffspring, double chanceForMutation, SplittableRandom random, ForkJoinPool pool) {
+		final int MINIMUM_NUMBER_OF_OFFSPRING = 4;
+		if(n < 1 || n > MAX_QUEENS) {
+			throw new IllegalArgumentException("Need 1 to " + MAX_QUEENS + " queens");
+		}
+		if(populationSize < 2 || numberOfOffspring < Math.max(populationSize, MINIMUM_NUMBER_OF_OFFSPRING)) {
+			throw new IllegalArgumentException("Need a population of at least 2 and at least " 
+					+ MINIMUM_NUMBER_OF_OFFSPRING + " offspring, but no fewer offspring than members");
+		}
+		this.random = random;
+		this.pool = pool;
+		numberOfIterations = 0;
+		runTime = 0.0;
+		this.n = n;
+		this.maxNumberOfIterations = maxNumberOfIterations;
+		this.populationSize = populationSize;
+		this.numberOfOffspring = numberOfOffspring;
+		this.chanceForMutation = chanceForMutation;
+		sizeOfFirstHalf = numberOfOffspring / 2;
+		tournamentSize = TRUNCATION_SELECTION;
+		highestFitness = (int)((long)n*(n-1)/2);
+		population = new int[populationSize * n];
+		nextPopulation = new int[populationSize * n];
+		populationFitness = new int[populationSize];
+		offspring = new int[numberOfOffspring * n];
+		offspringFitness = new int[numberOfOffspring];
+		offspringHashes = new long[numberOfOffspring];
+		survivors = new int[populationSize];
+		offspringKeys = new long[numberOfOffspring];
+		workspace = new Workspace(n);
+		if(pool != null) {
+			taskWorkspaces = new Workspace[countBreedingTasks(getNumberOfMatings())];
+			for(int task = 0; task < taskWorkspaces.length; ++task) {
+				taskWorkspaces[task] = new Workspace(n);
+			}
+		}//every task breeding matings itself gets its own scratch space, created once for every generation
+		getStartingPopulation();	
+	}
+	
+	/**
+	 * Performs the genetic algorithm.
+	 * @param printBoard - decide whether to print the board or not.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	public boolean solve(boolean printBoard) {
+		int fittestMember = 0;	//killOffWeak always puts the most fit member first
+		boolean solved = evolve(NO_TIME_LIMIT, null, null);
+		if(printBoard) {
+	        if(!solved) {
+	        	System.out.println("No solution");
+	        }else {
+	        	getMember(fittestMember).print();
+	        	System.out.println();
+	        }
+        }//if it was requested, print the board
+		return solved;
+	}
+	
+	/**
+	 * Performs the genetic algorithm until the board is solved, the generation 
+	 * limit is reached, the time runs out or the solve is cancelled, whichever
+	 * comes first. The time and the cancellation are checked after every 
+	 * generation, and so is the interrupt flag of the thread.
+	 * @param timeBudget - how long the solve may take.
+	 * @param cancelled - set from any thread to stop the solve, or null.
+	 * @return the fittest board of any generation along with how the solve went.
+	 */
+	public SolveResult solve(Duration timeBudget, AtomicBoolean cancelled) {
+		int[] bestBoard = new int[n];
+		evolve(SolveResult.toNanoseconds(timeBudget), cancelled, bestBoard);
+		return new SolveResult(new State(bestBoard), stoppedEarly, numberOfIterations, runTime);
+	}
+	
+	/**
+	 * Breeds generations until one holds a solution or the run has to stop.
+	 * @param timeBudget - how many nanoseconds the run may take, NO_TIME_LIMIT for no limit.
+	 * @param cancelled - stops the run when set, or null.
+	 * @param bestBoard - receives the fittest board of any generation, or null if it is not needed.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	private boolean evolve(long timeBudget, AtomicBoolean cancelled, int[] bestBoard) {
+		boolean puzzleHasNotBeenSolved, maxIterationsHasNotBeenReached, stopRequested;
+		if(!resumed) {
+			iteration = 0;
+			boardsEvaluated = 0;
+			runTimeBeforeResume = 0;
+		}//a resumed solve carries on where its checkpoint left off
+		resumed = false;
+		int fittestMember = 0;
+		long startTime, endTime = 0;
+		puzzleHasNotBeenSolved = !maxFitnessReached();
+		maxIterationsHasNotBeenReached = iteration < maxNumberOfIterations;
+		stopRequested = false;
+		boolean stoppable = timeBudget != NO_TIME_LIMIT || cancelled != null;
+		int bestFitness = populationFitness[fittestMember];
+		if(bestBoard != null) {
+			System.arraycopy(population, fittestMember*n, bestBoard, 0, n);
+		}
+		if(listener != null) {
+			listener.solveStarted();
+		}
+	
+		startTime = System.nanoTime();
+		long lastCheckpointTime = startTime;
+		while(puzzleHasNotBeenSolved && maxIterationsHasNotBeenReached && !stopRequested) {
+			reproduceNewGeneration();
+			if(maxFitnessReached()) {
+				puzzleHasNotBeenSolved = false;
+			}
+			if(bestBoard != null && populationFitness[fittestMember] > bestFitness) {
+				bestFitness = populationFitness[fittestMember];
+				System.arraycopy(population, fittestMember*n, bestBoard, 0, n);
+			}//the fittest member can be lost in a later generation, so a copy is kept
+			
+			++iteration;
+			if(listener != null) {
+				listener.generationBred(iteration, populationFitness[fittestMember], getMeanFitness(), boardsEvaluated);
+			}
+			maxIterationsHasNotBeenReached = (iteration < maxNumberOfIterations);
+			if(stoppable) {
+				stopRequested = (cancelled != null && cancelled.get()) 
+						|| Thread.currentThread().isInterrupted() 
+						|| System.nanoTime() - startTime >= timeBudget;
+			}
+			if(checkpointFile != null) {
+				reseed();
+				long now = System.nanoTime();
+				if(now - lastCheckpointTime >= checkpointInterval) {
+					writeCheckpoint(runTimeBeforeResume + (now - startTime));
+					lastCheckpointTime = now;
+				}
+			}//the random numbers only depend on the generation, not on when checkpoints were written
+		}
+		endTime = System.nanoTime();
+		if(listener != null) {
+			listener.solveFinished(!puzzleHasNotBeenSolved, iteration);
+		}
+		numberOfIterations = iteration;
+		runTime = runTimeBeforeResume + (endTime - startTime);
+		stoppedEarly = stopRequested && puzzleHasNotBeenSolved && maxIterationsHasNotBeenReached;
+		
+		return (!puzzleHasNotBeenSolved);
+	}
+	
+	/**
+	 * Makes every later solve save its population to a file now and then, so
+	 * it can be resumed after a crash. The population is saved after the first
+	 * generation bred once the interval has passed since the last save. From 
+	 * then on the random numbers are drawn from a new seed every generation, 
+	 * so a resumed solve breeds exactly the generations the original would have.
+	 * @param checkpointFile - the file the population is saved to, replaced every time.
+	 * @param interval - the least time between two saves.
+	 */
+	public void useCheckpoints(Path checkpointFile, Duration interval) {
+		this.checkpointFile = checkpointFile;
+		checkpointInterval = SolveResult.toNanoseconds(interval);
+		checkpointBuffer = ByteBuffer.allocate(CHECKPOINT_SIZE_WITHOUT_POPULATION + populationSize*(n + 1)*Integer.BYTES);
+		//the buffer is reused by every checkpoint
+		reseed();
+	}
+	
+	/**
+	 * Rebuilds a simulator from a checkpoint. The next solve carries on where
+	 * the checkpointed one left off and keeps saving to the same file.
+	 * @param checkpointFile - the file written by a simulator using checkpoints.
+	 * @param pool - the pool the offspring are created on, or null to create them on the calling thread.
+	 * @return the simulator.
+	 * @throws IOException if the file cannot be read, is damaged or belongs to another solver.
+	 */
+	public static GeneticAlgorithm resume(Path checkpointFile, ForkJoinPool pool) throws IOException {
+		ByteBuffer checkpoint = Checkpoint.read(checkpointFile, Checkpoint.GENETIC_ALGORITHM);
+		try {
+			int n = checkpoint.getInt();
+			int maxNumberOfIterations = checkpoint.getInt();
+			int populationSize = checkpoint.getInt();
+			int numberOfOffspring = checkpoint.getInt();
+			double chanceForMutation = checkpoint.getDouble();
+			long seed = checkpoint.getLong();
+			GeneticAlgorithm simulator = new GeneticAlgorithm(n, maxNumberOfIterations, populationSize, numberOfOffspring, 
+					chanceForMutation, new SplittableRandom(seed), pool);
+			simulator.random = new SplittableRandom(seed);
+			//the constructor drew a population from the first random stream
+			simulator.tournamentSize = checkpoint.getInt();
+			simulator.numberOfRefinedOffspring = checkpoint.getInt();
+			simulator.movesPerRefinement = checkpoint.getInt();
+			simulator.permutationEncoding = checkpoint.get() != 0;
+			simulator.rejectDuplicateOffspring(checkpoint.get() != 0);
+			simulator.checkpointFile = checkpointFile;
+			simulator.checkpointInterval = checkpoint.getLong();
+			simulator.checkpointBuffer = ByteBuffer.allocate(checkpoint.capacity());
+			simulator.seed = seed;
+			simulator.iteration = checkpoint.getInt();
+			simulator.boardsEvaluated = checkpoint.getLong();
+			simulator.runTimeBeforeResume = checkpoint.getDouble();
+			
+			IntBuffer members = checkpoint.asIntBuffer();
+			members.get(simulator.population);
+			members.get(simulator.populationFitness);
+			simulator.resumed = true;
+			return simulator;
+		}catch(BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException(checkpointFile + " is damaged", e);
+		}//a damaged size can make the constructor reject the population
+	}
+	
+	/**
+	 * Continues with random numbers drawn from a new seed, which a checkpoint 
+	 * can store to recreate them.
+	 */
+	private void reseed() {
+		seed = random.nextLong();
+		random = new SplittableRandom(seed);
+	}
+	
+	/**
+	 * Saves the population to the checkpoint file.
+	 * @param runTimeSoFar - how long the solve has been running, in nanoseconds.
+	 */
+	private void writeCheckpoint(double runTimeSoFar) {
+		ByteBuffer checkpoint = checkpointBuffer.clear();
+		checkpoint.putInt(n).putInt(maxNumberOfIterations).putInt(populationSize).putInt(numberOfOffspring)
+			.putDouble(chanceForMutation).putLong(seed).putInt(tournamentSize)
+			.putInt(numberOfRefinedOffspring).putInt(movesPerRefinement)
+			.put((byte)(permutationEncoding ? 1 : 0)).put((byte)(rejectDuplicates ? 1 : 0)).putLong(checkpointInterval)
+			.putInt(iteration).putLong(boardsEvaluated).putDouble(runTimeSoFar);
+		IntBuffer members = checkpoint.asIntBuffer();
+		members.put(population).put(populationFitness);
+		checkpoint.position(checkpoint.position() + members.position()*Integer.BYTES).flip();
+		
+		try {
+			Checkpoint.write(checkpointFile, Checkpoint.GENETIC_ALGORITHM, checkpoint);
+		}catch(IOException e) {
+			throw new UncheckedIOException("Could not save a checkpoint to " + checkpointFile, e);
+		}
+	}
+	
+	/**
+	 * Gets the number of iterations of the simulator.
+	 * @return the number of iterations the simulator stepped through.
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+	
+	/**
+	 * Gets the run time of the simulation.
+	 * @return total time to run the simulator.
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+
+	/**
+	 * Resets the genetic algorithm simulator.
+	 */
+	public void reset() {
+		getStartingPopulation();
+		numberOfIterations = 0;
+		runTime = 0.0;
+		resumed = false;
+	}
+	
+	/**
+	 * Reports the progress of every later solve to a listener. Without one the
+	 * solve does no extra work.
+	 * @param listener - the listener, or null to stop reporting.
+	 */
+	public void setListener(SolverListener listener) {
+		this.listener = listener;
+	}
+	
+	/**
+	 * Chooses survivors by tournament instead of keeping the fittest offspring.
+	 * Each place in the next population goes to the fittest of a few randomly 
+	 * drawn offspring, and the fittest offspring always survives.
+	 * @param tournamentSize - how many offspring compete for each place, 0 keeps the fittest offspring.
+	 */
+	public void useTournamentSelection(int tournamentSize) {
+		this.tournamentSize = Math.max(TRUNCATION_SELECTION, tournamentSize);
+	}
+	
+	/**
+	 * Turns the simulator into a memetic algorithm, which refines the fittest
+	 * offspring of every generation with a short local search before the 
+	 * survivors are chosen. The search moves queens, or swaps them with 
+	 * permutation encoding, so refined children stay valid members.
+	 * @param fractionRefined - the share of the offspring refined each generation, 0 turns refinement off.
+	 * @param movesPerRefinement - how many moves are attempted on every refined child.
+	 */
+	public void useLocalRefinement(double fractionRefined, int movesPerRefinement) {
+		if(fractionRefined < 0 || fractionRefined > 1 || movesPerRefinement < 0) {
+			throw new IllegalArgumentException("Need a share of the offspring between 0 and 1 and a non-negative number of moves");
+		}
+		numberOfRefinedOffspring = (int)Math.ceil(fractionRefined * numberOfOffspring);
+		this.movesPerRefinement = movesPerRefinement;
+	}
+	
+	/**
+	 * Keeps copies of the same board from crowding the population. Every 
+	 * offspring whose hash matches an earlier child of its generation competes 
+	 * for survival as if it had no fitness, so it only survives when there are
+	 * too few different boards to fill the population.
+	 * @param rejectDuplicates - whether to hold back repeated offspring.
+	 */
+	public void rejectDuplicateOffspring(boolean rejectDuplicates) {
+		this.rejectDuplicates = rejectDuplicates;
+		if(rejectDuplicates && selectionFitness == null) {
+			selectionFitness = new int[numberOfOffspring];
+			seenHashes = new long[Integer.highestOneBit(numberOfOffspring) << 2];
+		}//at most half of the seen hashes are in use, so probing stays short
+	}
+	
+	/**
+	 * Switches the simulator to boards with exactly one queen per row. The 
+	 * population is replaced by random boards of that kind, children are bred 
+	 * with partially mapped crossover and mutations swap genes, so no two queens ever share a row.
+	 */
+	public void usePermutationEncoding() {
+		permutationEncoding = true;
+		getStartingPopulation();
+	}
+	
+	/**
+	 * Replaces the population with its next generation.
+	 */
+	void evolveOneGeneration() {
+		reproduceNewGeneration();
+	}
+	
+	/**
+	 * Gets the fitness of the fittest member of the population, which
+	 * is always kept first.
+	 * @return the best fitness in the population.
+	 */
+	int getBestFitness() {
+		return populationFitness[0];
+	}
+	
+	/**
+	 * Gets a copy of the fittest member of the population.
+	 * @return the fittest member.
+	 */
+	State getFittestMember() {
+		return getMember(0);
+	}
+	
+	/**
+	 * Gets copies of the fittest members of the population to send to another one.
+	 * Survivors are only partitioned, so the members are found the way 
+	 * selectFittest finds survivors, and just the few chosen keys are sorted.
+	 * @param numberOfMembers - how many members to copy, at most the population size.
+	 * @return copies of the members, the fittest first.
+	 */
+	State[] getFittestMembers(int numberOfMembers) {
+		if(numberOfMembers < 0 || numberOfMembers > populationSize) {
+			throw new IllegalArgumentException("Need between 0 and " + populationSize + " members");
+		}
+		long[] keys = new long[populationSize];
+		packKeys(populationFitness, populationSize, keys);
+		
+		int weakestChosen = populationSize - numberOfMembers;
+		if(numberOfMembers > 0) {
+			partitionKeys(keys, populationSize, weakestChosen);
+		}//every key from weakestChosen on now belongs to one of the fittest members
+		Arrays.sort(keys, weakestChosen, populationSize);
+		
+		State[] fittestMembers = new State[numberOfMembers];
+		for(int member = 0, key = populationSize - 1; member < numberOfMembers; ++member, --key) {
+			fittestMembers[member] = getMember((int)keys[key]);
+		}
+		return fittestMembers;
+	}
+	
+	/**
+	 * Lets members from another population join this one. They only stay if
+	 * they are fitter than the members they would push out.
+	 * @param migrants - the members joining the population.
+	 */
+	void acceptMigrants(State[] migrants) {
+		int numberOfCandidates = populationSize + migrants.length;
+		int[] candidates = Arrays.copyOf(population, numberOfCandidates * n);
+		int[] candidateFitness = Arrays.copyOf(populationFitness, numberOfCandidates);
+		
+		for(int migrant = 0, candidate = populationSize; migrant < migrants.length; ++migrant, ++candidate) {
+			for(int gene = 0; gene < n; ++gene) {
+				candidates[candidate*n + gene] = migrants[migrant].getQueenPlacement(gene);
+			}
+			candidateFitness[candidate] = migrants[migrant].getFitness();
+		}
+		
+		selectFittest(candidateFitness, numberOfCandidates, new long[numberOfCandidates]);
+		killOffWeak(candidates, candidateFitness);
+	}
+	
+	/**
+	 * Counts the matings of a generation. The first half pairs neighbours and
+	 * keeps one child per mating but the last, the second half keeps both children.
+	 * @return how many matings breed the offspring.
+	 */
+	private int getNumberOfMatings() {
+		return (sizeOfFirstHalf - 1) + (numberOfOffspring - sizeOfFirstHalf + 1)/2;
+	}
+	
+	/**
+	 * Decides whether an offspring task breeds its range of matings itself
+	 * rather than splitting it in two.
+	 * @param numberOfMatings - how many matings the task covers.
+	 * @return true if the task breeds them itself.
+	 */
+	private boolean isSmallEnoughToBreed(int numberOfMatings) {
+		return numberOfMatings == 1 || (long)numberOfMatings * n <= QUEENS_PER_TASK;
+	}
+	
+	/**
+	 * Counts the tasks that end up breeding matings when an offspring task 
+	 * splits a range of them. Only the size of a range decides how it is 
+	 * split, so the count does not depend on where the range starts.
+	 * @param numberOfMatings - how many matings the range covers.
+	 * @return the number of breeding tasks.
+	 */
+	private int countBreedingTasks(int numberOfMatings) {
+		if(isSmallEnoughToBreed(numberOfMatings)) {
+			return 1;
+		}
+		int firstPart = numberOfMatings/2;
+		return countBreedingTasks(firstPart) + countBreedingTasks(numberOfMatings - firstPart);
+	}
+	
+	/**
+	 * Averages the fitness of the population.
+	 * @return the mean fitness.
+	 */
+	private double getMeanFitness() {
+		long totalFitness = 0;
+		for(int member = 0; member < populationSize; ++member) {
+			totalFitness += populationFitness[member];
+		}
+		return (double)totalFitness / populationSize;
+	}
+	
+	/**
+	 * Creates a state holding a copy of a member of the population.
+	 * @param member - the position of the member.
+	 * @return a new state with the member's board.
+	 */
+	private State getMember(int member) {
+		return new State(Arrays.copyOfRange(population, member*n, (member + 1)*n));
+	}
+	
+	/**
+	 * Gets the initial population, that is decided randomly.
+	 */
+	private void getStartingPopulation() {
+		for(int populationMember = 0; populationMember < populationSize; ++populationMember) {
+			int firstGene = populationMember*n;
+			for(int gene = 0; gene < n; ++gene) {
+				if(permutationEncoding) {
+					int otherGene = random.nextInt(gene + 1);
+					population[firstGene + gene] = population[firstGene + otherGene];
+					population[firstGene + otherGene] = gene;
+				}else {
+					population[firstGene + gene] = random.nextInt(n);
+				}
+			}//a permutation is shuffled while it is filled in
+			survivors[populationMember] = populationMember;
+		}
+		workspace.evaluator.evaluate(population, 0, populationSize, populationFitness);
+		//the whole population is scored straight from its genes, without a board per member
+		
+		int fittestMember = 0;
+		for(int populationMember = 1; populationMember < populationSize; ++populationMember) {
+			if(populationFitness[populationMember] > populationFitness[fittestMember]) {
+				fittestMember = populationMember;
+			}
+		}
+		survivors[fittestMember] = 0;
+		survivors[0] = fittestMember;
+		killOffWeak(Arrays.copyOf(population, population.length), Arrays.copyOf(populationFitness, populationSize));
+		//the fittest member is moved to the front like in every later generation
+	}
+	
+	/**
+	 * Replaces the population with a new one generated from its genetics.
+	 * The offspring are bred into their own buffer, and the survivors are 
+	 * copied into the spare population buffer, which then becomes the population.
+	 */
+	private void reproduceNewGeneration() {
+		if(pool == null) {
+			getFirstHalfOfNewPopulation();
+			getSecondHalfOfNewPopulation();
+		}else {
+			pool.invoke(new OffspringTask(0, getNumberOfMatings(), 0, random.split()));
+		}//both halves are bred at once when a pool was given
+		if(numberOfRefinedOffspring > 0) {
+			refineFittestOffspring();
+		}
+		collectBoardsEvaluated();
+		
+		int[] candidateFitness = offspringFitness;
+		if(rejectDuplicates) {
+			holdBackDuplicates();
+			candidateFitness = selectionFitness;
+		}//survivors keep their real fitness, only the selection sees the duplicates as unfit
+		
+		if(tournamentSize == TRUNCATION_SELECTION) {
+			selectFittest(candidateFitness, numberOfOffspring, offspringKeys);
+		}else {
+			selectByTournament(candidateFitness, numberOfOffspring);
+		}//neither needs the offspring sorted, so a generation costs time linear in its size
+		killOffWeak(offspring, offspringFitness);
+	}
+	
+	/**
+	 * Improves the fittest offspring with a short local search before the 
+	 * survivors are chosen. Each one gets the same number of attempted moves
+	 * at a low temperature, which mostly takes moves that lower the cost and 
+	 * lets the search walk across moves that keep it, and stops early once 
+	 * the board is solved. The offspring are found by partitioning their 
+	 * keys the way selectFittest does.
+	 */
+	private void refineFittestOffspring() {
+		int firstRefined = numberOfOffspring - numberOfRefinedOffspring;
+		packKeys(offspringFitness, numberOfOffspring, offspringKeys);
+		partitionKeys(offspringKeys, numberOfOffspring, firstRefined);
+		//every key from firstRefined on belongs to one of the fittest offspring
+		
+		State board = workspace.firstChild;
+		for(int key = firstRefined; key < numberOfOffspring; ++key) {
+			int child = (int)offspringKeys[key];
+			board.setQueenPlacements(offspring, child*n);
+			++workspace.boardsEvaluated;
+			//loading the board counts its cost again
+			int cost = board.getCost();
+			for(int move = 0; move < movesPerRefinement && cost != 0; ++move) {
+				if(permutationEncoding) {
+					cost = board.attemptSwap(cost, REFINEMENT_TEMPERATURE, random);
+				}else {
+					cost = board.attemptMove(cost, REFINEMENT_TEMPERATURE, random);
+				}
+			}
+			board.copyQueenPlacements(offspring, child*n);
+			offspringFitness[child] = board.getFitness();
+			if(rejectDuplicates) {
+				offspringHashes[child] = hashGenes(offspring, child*n);
+			}
+		}
+	}
+	
+	/**
+	 * Adds the boards every workspace scored during the generation to the 
+	 * count of the solve. Each workspace only counts its own, so the tasks 
+	 * breeding offspring never share a counter.
+	 */
+	private void collectBoardsEvaluated() {
+		boardsEvaluated += workspace.boardsEvaluated;
+		workspace.boardsEvaluated = 0;
+		if(taskWorkspaces != null) {
+			for(Workspace taskWorkspace : taskWorkspaces) {
+				boardsEvaluated += taskWorkspace.boardsEvaluated;
+				taskWorkspace.boardsEvaluated = 0;
+			}
+		}
+	}
+	
+	/**
+	 * Fills the selection fitness with the fitness of the offspring, except
+	 * for offspring repeating an earlier child of the generation, which get 
+	 * none. The hashes seen are kept in an open addressing table.
+	 */
+	private void holdBackDuplicates() {
+		final long EMPTY = 0;
+		final int mask = seenHashes.length - 1;
+		Arrays.fill(seenHashes, EMPTY);
+		
+		for(int child = 0; child < numberOfOffspring; ++child) {
+			long hash = (offspringHashes[child] == EMPTY) ? 1 : offspringHashes[child];
+			int slot = (int)hash & mask;
+			while(seenHashes[slot] != EMPTY && seenHashes[slot] != hash) {
+				slot = (slot + 1) & mask;
+			}
+			
+			if(seenHashes[slot] == hash) {
+				selectionFitness[child] = 0;
+			}else {
+				seenHashes[slot] = hash;
+				selectionFitness[child] = offspringFitness[child];
+			}
+		}
+	}
+	
+	/**
+	 * Chooses the fittest candidates as survivors, the fittest first. Each 
+	 * candidate's fitness is packed with its position into a key, and the keys 
+	 * are only partitioned around the weakest survivor instead of sorted. 
+	 * Among candidates with equal fitness the later one is preferred.
+	 * @param candidateFitness - the fitness of every candidate.
+	 * @param numberOfCandidates - how many candidates there are.
+	 * @param keys - scratch space for at least numberOfCandidates keys.
+	 */
+	private void selectFittest(int[] candidateFitness, int numberOfCandidates, long[] keys) {
+		int weakestSurvivor = numberOfCandidates - populationSize;
+		packKeys(candidateFitness, numberOfCandidates, keys);
+		partitionKeys(keys, numberOfCandidates, weakestSurvivor);
+		//every key from weakestSurvivor on now belongs to a survivor
+		
+		int fittestSurvivor = weakestSurvivor;
+		for(int key = weakestSurvivor + 1; key < numberOfCandidates; ++key) {
+			if(keys[key] > keys[fittestSurvivor]) {
+				fittestSurvivor = key;
+			}
+		}
+		
+		survivors[0] = (int)keys[fittestSurvivor];
+		keys[fittestSurvivor] = keys[weakestSurvivor];
+		for(int survivor = 1, key = weakestSurvivor + 1; survivor < populationSize; ++survivor, ++key) {
+			survivors[survivor] = (int)keys[key];
+		}
+	}
+	
+	/**
+	 * Packs the fitness of every candidate with its position into a key, the
+	 * fitness in the upper half and the position in the lower half, so the
+	 * position is read back by casting a key to an int.
+	 * @param fitness - the fitness of every candidate.
+	 * @param numberOfCandidates - how many candidates there are.
+	 * @param keys - receives numberOfCandidates keys.
+	 */
+	private static void packKeys(int[] fitness, int numberOfCandidates, long[] keys) {
+		final int POSITION_BITS = 32;
+		for(int candidate = 0; candidate < numberOfCandidates; ++candidate) {
+			keys[candidate] = ((long)fitness[candidate] << POSITION_BITS) | candidate;
+		}//fitness is never negative, so the keys order the same way as the fitness values
+	}
+	
+	/**
+	 * Rearranges keys so the key at a boundary is where it would be if they were
+	 * sorted, with smaller keys before it and larger keys after it.
+	 * @param keys - the keys, all different from each other.
+	 * @param numberOfKeys - how many keys there are.
+	 * @param boundary - the position to partition around.
+	 */
+	private static void partitionKeys(long[] keys, int numberOfKeys, int boundary) {
+		int low = 0;
+		int high = numberOfKeys - 1;
+		
+		while(low < high) {
+			long pivot = keys[(low + high) >>> 1];
+			int left = low;
+			int right = high;
+			
+			while(left <= right) {
+				while(keys[left] < pivot) {
+					++left;
+				}
+				while(keys[right] > pivot) {
+					--right;
+				}
+				if(left <= right) {
+					long swap = keys[left];
+					keys[left] = keys[right];
+					keys[right] = swap;
+					++left;
+					--right;
+				}
+			}//everything up to right is at most the pivot, everything from left on is at least the pivot
+			
+			if(boundary <= right) {
+				high = right;
+			}else if(boundary >= left) {
+				low = left;
+			}else {
+				return;
+			}//only keep partitioning the side the boundary is on
+		}
+	}
+	
+	/**
+	 * Chooses survivors by tournament. The fittest candidate always survives,
+	 * and every other place goes to the fittest of tournamentSize random candidates.
+	 * @param candidateFitness - the fitness of every candidate.
+	 * @param numberOfCandidates - how many candidates there are.
+	 */
+	private void selectByTournament(int[] candidateFitness, int numberOfCandidates) {
+		int fittestCandidate = 0;
+		for(int candidate = 1; candidate < numberOfCandidates; ++candidate) {
+			if(candidateFitness[candidate] > candidateFitness[fittestCandidate]) {
+				fittestCandidate = candidate;
+			}
+		}
+		survivors[0] = fittestCandidate;
+		
+		for(int survivor = 1; survivor < populationSize; ++survivor) {
+			int winner = random.nextInt(numberOfCandidates);
+			for(int round = 1; round < tournamentSize; ++round) {
+				int challenger = random.nextInt(numberOfCandidates);
+				if(candidateFitness[challenger] > candidateFitness[winner]) {
+					winner = challenger;
+				}
+			}
+			survivors[survivor] = winner;
+		}
+	}
+	
+	/**
+	 * Generates half of the new population that will be produced. This 
+	 * half is based on selection, and the states with similar fitness 
+	 * mating with each other. It fills the first half of the offspring.
+	 */
+	private void getFirstHalfOfNewPopulation() {
+		boolean inReproductionSeason = true;
+		int child = 0;
+		
+		while(inReproductionSeason) {
+			boolean lastMating = (child == sizeOfFirstHalf - 2);
+			mate(child % populationSize, (child + 1) % populationSize, child, lastMating ? child + 1 : DISCARDED, random, workspace);
+			//add the newly generated children to the new population, every second child 
+			//but the last one would be replaced by the next mating, so it is not kept
+			
+			++child;
+			//parents are incremented together, wrapping around when there are more children than parents
+			inReproductionSeason = (child < sizeOfFirstHalf - 1);
+		}
+	}
+	
+	/**
+	 * Generates half of the new population that will be produce. This
+	 * half focuses on variation, and random states mating with random states.
+	 * It fills the second half of the offspring.
+	 */
+	private void getSecondHalfOfNewPopulation() {
+		boolean inReproductionSeason = true;
+		int parentOne = random.nextInt(populationSize);
+		int parentTwo = random.nextInt(populationSize);
+		int iteration = sizeOfFirstHalf;
+		
+		while(inReproductionSeason) {
+			boolean roomForSecondChild = (iteration + 1 < numberOfOffspring);
+			mate(parentOne, parentTwo, iteration, roomForSecondChild ? iteration + 1 : DISCARDED, random, workspace);
+			iteration += 2;
+			//add the newly generated children to the new population
+			
+			parentOne = random.nextInt(populationSize);
+			parentTwo = random.nextInt(populationSize);
+			//next parents are radomly decided
+			inReproductionSeason = (iteration < numberOfOffspring);
+		}
+	}
+	
+	/**
+	 * Has two parents produce two children, mutating them if chance decides so.
+	 * The children are written into the offspring along with their fitness.
+	 * @param parentOne - the position of the first parent in the population.
+	 * @param parentTwo - the position of the second parent in the population.
+	 * @param firstChild - the position of the first child in the offspring.
+	 * @param secondChild - the position of the second child in the offspring, or DISCARDED.
+	 * @param random - the source of randomness.
+	 * @param workspace - the scratch space of the calling thread.
+	 */
+	private void mate(int parentOne, int parentTwo, int firstChild, int secondChild, SplittableRandom random, Workspace workspace) {
+		boolean keepSecondChild = secondChild != DISCARDED;
+		int[] secondChildGenes = keepSecondChild ? offspring : workspace.discardedChild;
+		int secondChildOffset = keepSecondChild ? secondChild*n : 0;
+		
+		if(permutationEncoding) {
+			partiallyMappedCrossover(parentOne, parentTwo, offspring, firstChild*n, random, workspace);
+			partiallyMappedCrossover(parentOne, parentTwo, secondChildGenes, secondChildOffset, random, workspace);
+		}else {
+			copulate(parentOne, parentTwo, offspring, firstChild*n, random);
+			copulate(parentOne, parentTwo, secondChildGenes, secondChildOffset, random);
+		}//each parent produces two kids
+		
+		int firstChildFitness = workspace.evaluator.getFitness(offspring, firstChild*n);
+		int secondChildFitness = workspace.evaluator.getFitness(secondChildGenes, secondChildOffset);
+		workspace.boardsEvaluated += 2;
+		//children are scored where they are, a scratch board is only loaded for a mutation
+		boolean firstChildSlow = firstChildFitness < highestFitness/2;
+		boolean secondChildSlow = secondChildFitness < highestFitness/2;
+		//the same test as State.isSlow, which also works for children that were not loaded
+		
+		boolean shouldMutate = (firstChildSlow || secondChildSlow) ? (chanceForMutation > (random.nextDouble()/2)) : (chanceForMutation > random.nextDouble());
+		//if the child has poor fitness, the mutation probability is higher
+		
+		if(shouldMutate) {
+			workspace.firstChild.setQueenPlacements(offspring, firstChild*n);
+			workspace.secondChild.setQueenPlacements(secondChildGenes, secondChildOffset);
+			//mutations are scored incrementally, which needs the board
+			
+			mutate(offspring, firstChild*n, workspace.firstChild, firstChildSlow, random);
+			mutate(secondChildGenes, secondChildOffset, workspace.secondChild, secondChildSlow, random);
+			firstChildFitness = workspace.firstChild.getFitness();
+			secondChildFitness = workspace.secondChild.getFitness();
+		}//mutation based on probability, as well as if a child has a poor fitness
+		
+		offspringFitness[firstChild] = firstChildFitness;
+		if(keepSecondChild) {
+			offspringFitness[secondChild] = secondChildFitness;
+		}
+		if(rejectDuplicates) {
+			offspringHashes[firstChild] = hashGenes(offspring, firstChild*n);
+			if(keepSecondChild) {
+				offspringHashes[secondChild] = hashGenes(offspring, secondChild*n);
+			}
+		}//only the kept children are compared, once they are final
+	}
+	
+	/**
+	 * Computes the Zobrist hash of a board stored as genes, the exclusive or 
+	 * of a key for every occupied square. Equal boards have equal hashes; 
+	 * different boards rarely do. Only the genetic algorithm compares boards,
+	 * so States do not keep a hash up to date while they move queens.
+	 * @param genes - the array holding the board's genes.
+	 * @param firstGene - the position of the board's first gene.
+	 * @return the hash of the board.
+	 */
+	private long hashGenes(int[] genes, int firstGene) {
+		long hash = 0;
+		for(int column = 0; column < n; ++column) {
+			hash ^= getSquareKey(genes[firstGene + column], column);
+		}
+		return hash;
+	}
+	
+	/**
+	 * Gets the Zobrist key of a square. The keys are mixed from the square's
+	 * position instead of being looked up, since a table of n squared random
+	 * keys would not fit in memory for large boards.
+	 * @param row - the row of the square.
+	 * @param column - the column of the square.
+	 * @return the key of the square.
+	 */
+	private static long getSquareKey(int row, int column) {
+		long key = (((long)column << 32) | row) + 0x9E3779B97F4A7C15L;
+		key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+		key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+		return key ^ (key >>> 31);
+	}//the SplitMix64 finalizer, which spreads neighbouring squares over all 64 bits
+	
+	/**
+	 * Gets rid of every candidate that was not chosen to survive.
+	 * @param candidates - the genes of the candidates.
+	 * @param candidateFitness - the fitness of the candidates.
+	 */
+	private void killOffWeak(int[] candidates, int[] candidateFitness) {
+		for(int survivor = 0; survivor < populationSize; ++survivor) {
+			System.arraycopy(candidates, survivors[survivor]*n, nextPopulation, survivor*n, n);
+			populationFitness[survivor] = candidateFitness[survivors[survivor]];
+		}
+		
+		int[] previousPopulation = population;
+		population = nextPopulation;
+		nextPopulation = previousPopulation;
+		//the old population's buffer is reused for the next generation
+	}
+	
+	/**
+	 * Checks to see if the maximum fitness has been reached.
+	 * @return true if the board has been solved.
+	 */
+	private boolean maxFitnessReached() {
+		final int fittestMember = 0;
+		return (populationFitness[fittestMember] == highestFitness);
+		//only need to check highest fitness level, which is first.
+	}
+	
+	/**
+	 * Changes a childs' genetics slightly.
+	 * @param genes - the array holding the child's genes.
+	 * @param firstGene - the position of the child's first gene.
+	 * @param child - the child's board, kept in step with its genes.
+	 * @param isSlow - whether the child has poor fitness.
+	 * @param random - the source of randomness.
+	 */
+	private void mutate(int[] genes, int firstGene, State child, boolean isSlow, SplittableRandom random) {
+		final int mutationsForSlowChild = 3;
+		final int mutationsForRegularChild = 1;
+		int numberOfMutationsToPerform = (isSlow) ? mutationsForSlowChild : mutationsForRegularChild;
+		
+		for(int numberOfMutations = 0; numberOfMutations < numberOfMutationsToPerform; ++numberOfMutations) {
+			int positionToMutate = random.nextInt(n);
+			int mutation = random.nextInt(n);
+			
+			if(permutationEncoding) {
+				int swappedGene = genes[firstGene + positionToMutate];
+				genes[firstGene + positionToMutate] = genes[firstGene + mutation];
+				genes[firstGene + mutation] = swappedGene;
+				child.swapQueens(positionToMutate, mutation);
+			}else {
+				genes[firstGene + positionToMutate] = mutation;
+				child.moveQueen(mutation, positionToMutate);
+			}//a permutation swaps two genes so every row stays used once
+		}//children with less fitness will receive more mutations
+	}
+	
+	/**
+	 * Creates a new child based on two parents genetics.
+	 * @param parentOne - the parent where the first half of the childs' genetics will come from.
+	 * @param parentTwo - the parent where the second half of the childs' genetics will come from.
+	 * @param childsGenetics - the array the child's genes are written to.
+	 * @param firstGene - the position of the child's first gene.
+	 * @param random - the source of randomness.
+	 */
+	private void copulate(int parentOne, int parentTwo, int[] childsGenetics, int firstGene, SplittableRandom random) {
+		int geneticsFromParentOne = random.nextInt(n);
+		int geneticsFromParentTwo = n - geneticsFromParentOne;
+		//get the cutoff point for inheritance
+		
+		System.arraycopy(population, parentOne*n, childsGenetics, firstGene, geneticsFromParentOne);
+		//transfer parent one genetics to child
+		System.arraycopy(population, parentTwo*n + geneticsFromParentOne, childsGenetics, firstGene + geneticsFromParentOne, geneticsFromParentTwo);
+		//transfer parent two genetics to child
+	}
+	
+	/**
+	 * Creates a new child from two permutations with partially mapped crossover.
+	 * The child starts as a copy of parent two, then takes a random slice of 
+	 * parent one in place by swapping each row of the slice into its position, 
+	 * so it stays a permutation and keeps most rows where a parent had them.
+	 * @param parentOne - the parent the slice comes from.
+	 * @param parentTwo - the parent the rest of the genes come from.
+	 * @param childsGenetics - the array the child's genes are written to.
+	 * @param firstGene - the position of the child's first gene.
+	 * @param random - the source of randomness.
+	 * @param workspace - the scratch space of the calling thread.
+	 */
+	private void partiallyMappedCrossover(int parentOne, int parentTwo, int[] childsGenetics, int firstGene, SplittableRandom random, Workspace workspace) {
+		int[] columnOfRow = workspace.columnOfRow;
+		int sliceStart = random.nextInt(n);
+		int sliceEnd = random.nextInt(n);
+		if(sliceStart > sliceEnd) {
+			int swap = sliceStart;
+			sliceStart = sliceEnd;
+			sliceEnd = swap;
+		}
+		
+		System.arraycopy(population, parentTwo*n, childsGenetics, firstGene, n);
+		for(int gene = 0; gene < n; ++gene) {
+			columnOfRow[childsGenetics[firstGene + gene]] = gene;
+		}//transfer parent two genetics to child
+		
+		for(int gene = sliceStart; gene <= sliceEnd; ++gene) {
+			int row = population[parentOne*n + gene];
+			int currentColumn = columnOfRow[row];
+			int displacedRow = childsGenetics[firstGene + gene];
+			
+			childsGenetics[firstGene + gene] = row;
+			childsGenetics[firstGene + currentColumn] = displacedRow;
+			columnOfRow[row] = gene;
+			columnOfRow[displacedRow] = currentColumn;
+		}//swap the slice of parent one genetics into place
+	}
+	
+	/**
+	 * The evaluator scoring children while they are bred, the scratch
+	 * boards a mutated child is loaded onto, and how many boards were scored
+	 * since the count was last collected. Every task breeding offspring
+	 * needs its own.
+	 */
+	private static class Workspace {
+		private final State firstChild, secondChild;
+		private final int[] discardedChild;
+		private final int[] columnOfRow;
+		private final FitnessEvaluator evaluator;
+		private long boardsEvaluated;
+		
+		private Workspace(int n) {
+			firstChild = new State(new int[n]);
+			secondChild = new State(new int[n]);
+			discardedChild = new int[n];
+			columnOfRow = new int[n];
+			evaluator = new FitnessEvaluator(n);
+		}
+	}
+	
+	/**
+	 * Breeds a range of the matings of a generation. A mating below sizeOfFirstHalf - 1 
+	 * pairs neighbouring parents like getFirstHalfOfNewPopulation, and the rest pair 
+	 * random parents like getSecondHalfOfNewPopulation. Each task owns its random
+	 * stream, and a split task hands a new stream to the half it forks, so the
+	 * children do not depend on how the pool schedules the work. The breeding
+	 * tasks are numbered in the order of their matings, and each one uses the
+	 * workspace of its number.
+	 */
+	private class OffspringTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final int firstMating, lastMating;
+		private final int firstBreedingTask;
+		private final SplittableRandom random;
+		
+		private OffspringTask(int firstMating, int lastMating, int firstBreedingTask, SplittableRandom random) {
+			this.firstMating = firstMating;
+			this.lastMating = lastMating;
+			this.firstBreedingTask = firstBreedingTask;
+			this.random = random;
+		}
+		
+		@Override
+		protected void compute() {
+			int numberOfMatings = lastMating - firstMating;
+			
+			if(isSmallEnoughToBreed(numberOfMatings)) {
+				Workspace workspace = taskWorkspaces[firstBreedingTask];
+				for(int mating = firstMating; mating < lastMating; ++mating) {
+					breed(mating, workspace);
+				}
+				return;
+			}//small ranges are bred directly
+			
+			int middleMating = firstMating + numberOfMatings/2;
+			OffspringTask firstPart = new OffspringTask(firstMating, middleMating, firstBreedingTask, random.split());
+			OffspringTask secondPart = new OffspringTask(middleMating, lastMating, 
+					firstBreedingTask + countBreedingTasks(middleMating - firstMating), random);
+			invokeAll(firstPart, secondPart);
+		}
+		
+		/**
+		 * Breeds one mating and stores its children where the serial path would keep them.
+		 * @param mating - the index of the mating.
+		 * @param workspace - the scratch space of this task.
+		 */
+		private void breed(int mating, Workspace workspace) {
+			final int LAST_NEIGHBOUR_MATING = sizeOfFirstHalf - 2;
+			
+			if(mating <= LAST_NEIGHBOUR_MATING) {
+				boolean lastNeighbourMating = (mating == LAST_NEIGHBOUR_MATING);
+				mate(mating % populationSize, (mating + 1) % populationSize, mating, lastNeighbourMating ? mating + 1 : DISCARDED, random, workspace);
+			}else {
+				int child = sizeOfFirstHalf + 2*(mating - LAST_NEIGHBOUR_MATING - 1);
+				boolean roomForSecondChild = (child + 1 < numberOfOffspring);
+				mate(random.nextInt(populationSize), random.nextInt(populationSize), child, roomForSecondChild ? child + 1 : DISCARDED, random, workspace);
+			}
+		}
+	}
+}
\ No newline at end of file
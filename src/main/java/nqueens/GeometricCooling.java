@@ -0,0 +1,40 @@
+package nqueens;
+
+import java.nio.ByteBuffer;
+public class GeometricCooling implements CoolingSchedule {
+	private double startingTemperature;
+	private double coolingFactor;
+
+	/**
+	 * Creates a schedule that multiplies the temperature by the same factor after every move.
+	 * @param startingTemperature - the temperature at the start.
+	 * @param coolingFactor - the factor, between 0 and 1.
+	 */
+	public GeometricCooling(double startingTemperature, double coolingFactor) {
+		if(startingTemperature <= 0 || coolingFactor <= 0 || coolingFactor >= 1) {
+			throw new IllegalArgumentException("Need a positive temperature and a cooling factor between 0 and 1");
+		}
+		this.startingTemperature = startingTemperature;
+		this.coolingFactor = coolingFactor;
+	}
+
+	@Override
+	public double restart() {
+		return startingTemperature;
+	}
+
+	@Override
+	public double cool(double temperature, int iteration, long movesProposed, int costChange) {
+		return temperature * coolingFactor;
+	}
+
+	@Override
+	public int getParametersSize() {
+		return 2*Double.BYTES;
+	}
+
+	@Override
+	public void saveParameters(ByteBuffer buffer) {
+		buffer.putDouble(startingTemperature).putDouble(coolingFactor);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,167 @@
+package nqueens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+public class IslandGeneticAlgorithm {
+	private SplittableRandom random;
+	private State solution;
+	private int n;
+	private int numberOfIslands;
+	private int migrationInterval;
+	private int numberOfMigrants;
+	private int numberOfIterations;
+	private double runTime;
+	private int highestFitness;
+	private int maxNumberOfIterations;
+	
+	
+	/**
+	 * Creates a simulator that evolves several populations at once, one per thread.
+	 * Every few generations each island sends copies of its fittest members to the
+	 * next island in a ring.
+	 * @param n - the number of queens, at most GeneticAlgorithm.MAX_QUEENS.
+	 * @param maxNumberOfIterations - the generation limit of every island.
+	 * @param numberOfIslands - how many populations evolve at once.
+	 * @param migrationInterval - how many generations pass between migrations.
+	 * @param numberOfMigrants - how many members an island sends per migration.
+	 * @param random - the source of randomness, owned by this simulator from now on.
+	 */
+	public IslandGeneticAlgorithm(int n, int maxNumberOfIterations, int numberOfIslands, int migrationInterval, int numberOfMigrants, SplittableRandom random) {
+		if(n < 1 || n > GeneticAlgorithm.MAX_QUEENS) {
+			throw new IllegalArgumentException("Need 1 to " + GeneticAlgorithm.MAX_QUEENS + " queens");
+		}
+		this.n = n;
+		this.maxNumberOfIterations = maxNumberOfIterations;
+		this.numberOfIslands = Math.max(1, numberOfIslands);
+		this.migrationInterval = Math.max(1, migrationInterval);
+		this.numberOfMigrants = numberOfMigrants;
+		this.random = random;
+		highestFitness = (int)((long)n*(n-1)/2);
+		numberOfIterations = 0;
+		runTime = 0.0;
+	}
+	
+	/**
+	 * Evolves all islands until one of them holds a solution or every island 
+	 * reaches the generation limit.
+	 * @param printBoard - decide whether to print the board or not.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	public boolean solve(boolean printBoard) {
+		AtomicReferenceArray<State[]> arrivals = new AtomicReferenceArray<>(numberOfIslands);
+		AtomicReference<State> firstSolution = new AtomicReference<>();
+		List<Callable<Integer>> islands = new ArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool(numberOfIslands);
+		long startTime, endTime;
+		
+		for(int island = 0; island < numberOfIslands; ++island) {
+			GeneticAlgorithm population = new GeneticAlgorithm(n, maxNumberOfIterations, random.split());
+			int islandNumber = island;
+			islands.add(() -> evolveIsland(islandNumber, population, arrivals, firstSolution));
+		}//random streams are split here so the islands do not depend on thread scheduling
+		
+		startTime = System.nanoTime();
+		numberOfIterations = 0;
+		try {
+			for(Future<Integer> island : pool.invokeAll(islands)) {
+				numberOfIterations = Math.max(numberOfIterations, island.get());
+			}
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}catch(ExecutionException e) {
+			throw new IllegalStateException("An island failed to evolve", e.getCause());
+		}finally {
+			pool.shutdownNow();
+		}
+		endTime = System.nanoTime();
+		
+		solution = firstSolution.get();
+		if(printBoard) {
+	        if(solution == null) {
+	        	System.out.println("No solution");
+	        }else {
+	        	solution.print();
+	        	System.out.println();
+	        }
+        }//if it was requested, print the board
+		runTime = endTime - startTime;
+		
+		return (solution != null);
+	}
+	
+	/**
+	 * Evolves a single island. Migrants are exchanged through one slot per island:
+	 * an island publishes into its neighbour's slot and takes whatever is in its own, 
+	 * so no locks are held and a slow island only ever sees the latest migrants.
+	 * @param island - the number of the island.
+	 * @param population - the population living on the island.
+	 * @param arrivals - the migrants waiting for each island.
+	 * @param firstSolution - the first solution found by any island.
+	 * @return the number of generations the island went through.
+	 */
+	private int evolveIsland(int island, GeneticAlgorithm population, AtomicReferenceArray<State[]> arrivals, AtomicReference<State> firstSolution) {
+		int neighbour = (island + 1) % numberOfIslands;
+		int generation = 0;
+		
+		while(generation < maxNumberOfIterations && firstSolution.get() == null) {
+			population.evolveOneGeneration();
+			++generation;
+			
+			if(population.getBestFitness() == highestFitness) {
+				firstSolution.compareAndSet(null, population.getFittestMember());
+				break;
+			}//the first island to find a solution stops the others
+			
+			if(numberOfIslands > 1 && generation % migrationInterval == 0) {
+				arrivals.set(neighbour, population.getFittestMembers(numberOfMigrants));
+				State[] migrants = arrivals.getAndSet(island, null);
+				if(migrants != null) {
+					population.acceptMigrants(migrants);
+				}
+			}//migrants are copies, so islands never share a board
+		}
+		
+		return generation;
+	}
+	
+	/**
+	 * Gets the solution found by the last run.
+	 * @return the solved board, or null if no island found one.
+	 */
+	public State getSolution() {
+		return solution;
+	}
+	
+	/**
+	 * Gets the number of generations of the island that evolved the longest.
+	 * @return the number of iterations the simulator stepped through.
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+	
+	/**
+	 * Gets the run time of the simulation.
+	 * @return total time to run the simulator.
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+	
+	/**
+	 * Resets the island simulator. Every run starts from new populations.
+	 */
+	public void reset() {
+		solution = null;
+		numberOfIterations = 0;
+		runTime = 0.0;
+	}
+}
\ No newline at end of file
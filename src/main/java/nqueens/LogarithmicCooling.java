@@ -0,0 +1,40 @@
+package nqueens;
+
+import java.nio.ByteBuffer;
+public class LogarithmicCooling implements CoolingSchedule {
+	private double startingTemperature;
+
+	/**
+	 * Creates a schedule that divides the starting temperature by the logarithm
+	 * of the number of moves. It cools much slower than a geometric schedule, 
+	 * so the search keeps climbing out of local minima for longer.
+	 * @param startingTemperature - the temperature at the start.
+	 */
+	public LogarithmicCooling(double startingTemperature) {
+		if(startingTemperature <= 0) {
+			throw new IllegalArgumentException("Need a positive temperature");
+		}
+		this.startingTemperature = startingTemperature;
+	}
+
+	@Override
+	public double restart() {
+		return startingTemperature;
+	}
+
+	@Override
+	public double cool(double temperature, int iteration, long movesProposed, int costChange) {
+		return startingTemperature / Math.log(iteration + Math.E);
+		//equal to the starting temperature before the first move
+	}
+
+	@Override
+	public int getParametersSize() {
+		return Double.BYTES;
+	}
+
+	@Override
+	public void saveParameters(ByteBuffer buffer) {
+		buffer.putDouble(startingTemperature);
+	}
+}
\ No newline at end of file
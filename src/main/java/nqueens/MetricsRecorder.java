@@ -0,0 +1,201 @@
+package nqueens;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+public class MetricsRecorder implements SolverListener {
+	private int[] iterations;
+	private long[] elapsedTimes;
+	private double[] firstValues;
+	private double[] secondValues;
+	private double[] rates;
+	//samples live in a ring, so once it is full the oldest sample is overwritten
+	private int capacity;
+	private int sampleInterval;
+	private int numberOfSamples;
+	private int nextSampledIteration;
+	private boolean recordingGenerations;
+	private long startTime;
+	private int lastSampledIteration;
+	private long lastSampledCount;
+	private long lastSampledTime;
+	private int lastIteration;
+	private double lastFirstValue;
+	private double lastSecondValue;
+	private long lastCount;
+	private double runTime;
+	private final double SECONDS_OVER_NANOSECONDS = 1_000_000_000;
+	private final double MILLISECONDS_OVER_NANOSECONDS = 1_000_000;
+
+	/**
+	 * Creates a recorder that keeps a fixed number of samples, so recording never allocates.
+	 * @param capacity - how many samples are kept, the latest ones win.
+	 * @param sampleInterval - how many iterations pass between samples, 1 samples every iteration.
+	 */
+	public MetricsRecorder(int capacity, int sampleInterval) {
+		if(capacity < 1 || sampleInterval < 1) {
+			throw new IllegalArgumentException("Need room for a sample and a sample interval of at least 1");
+		}
+		this.capacity = capacity;
+		this.sampleInterval = sampleInterval;
+		iterations = new int[capacity];
+		elapsedTimes = new long[capacity];
+		firstValues = new double[capacity];
+		secondValues = new double[capacity];
+		rates = new double[capacity];
+	}
+
+	/**
+	 * Forgets the samples of the previous solve and starts the clock.
+	 */
+	@Override
+	public void solveStarted() {
+		numberOfSamples = 0;
+		nextSampledIteration = 1;
+		startTime = System.nanoTime();
+		lastSampledIteration = 0;
+		lastSampledCount = 0;
+		lastSampledTime = startTime;
+		lastIteration = 0;
+		lastCount = 0;
+		runTime = 0;
+	}
+
+	@Override
+	public void annealingStep(int iteration, double temperature, int cost, long movesProposed) {
+		recordingGenerations = false;
+		record(iteration, temperature, cost, movesProposed);
+	}
+
+	@Override
+	public void generationBred(int generation, int bestFitness, double meanFitness, long boardsEvaluated) {
+		recordingGenerations = true;
+		record(generation, bestFitness, meanFitness, boardsEvaluated);
+	}
+
+	/**
+	 * Samples the last iteration if it was skipped, so the end of the solve is always recorded.
+	 */
+	@Override
+	public void solveFinished(boolean solved, int numberOfIterations) {
+		if(lastIteration != lastSampledIteration) {
+			takeSample(lastIteration, lastFirstValue, lastSecondValue, lastCount, System.nanoTime());
+		}
+		runTime = System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Gets the share of proposed moves that were accepted over the whole solve.
+	 * @return accepted moves divided by proposed moves, 0 if nothing was proposed.
+	 */
+	public double getAcceptanceRate() {
+		return lastCount == 0 ? 0 : (double)lastIteration / lastCount;
+	}
+
+	/**
+	 * Gets how many boards were scored per second over the whole solve.
+	 * @return the evaluation rate, 0 before a solve finished.
+	 */
+	public double getEvaluationsPerSecond() {
+		return runTime == 0 ? 0 : lastCount / (runTime / SECONDS_OVER_NANOSECONDS);
+	}
+
+	/**
+	 * Gets how many samples are kept right now.
+	 * @return the number of samples, at most the capacity.
+	 */
+	public int getNumberOfSamples() {
+		return Math.min(numberOfSamples, capacity);
+	}
+
+	/**
+	 * Writes the kept samples as CSV, oldest first. Annealing samples hold the
+	 * temperature, the cost and the share of moves accepted since the previous
+	 * sample; generation samples hold the best and mean fitness and the boards
+	 * scored per second since the previous sample.
+	 * @param output - where the CSV goes.
+	 * @throws IOException if the output cannot be written.
+	 */
+	public void writeCsv(Appendable output) throws IOException {
+		if(recordingGenerations) {
+			output.append("generation,elapsed_ms,best_fitness,mean_fitness,evaluations_per_second\n");
+		}else {
+			output.append("iteration,elapsed_ms,temperature,cost,acceptance_rate\n");
+		}
+
+		int keptSamples = getNumberOfSamples();
+		int oldestSample = numberOfSamples - keptSamples;
+		for(int sample = oldestSample; sample < numberOfSamples; ++sample) {
+			int slot = sample % capacity;
+			output.append(Integer.toString(iterations[slot])).append(',')
+				.append(Double.toString(elapsedTimes[slot] / MILLISECONDS_OVER_NANOSECONDS)).append(',')
+				.append(Double.toString(firstValues[slot])).append(',')
+				.append(Double.toString(secondValues[slot])).append(',')
+				.append(Double.toString(rates[slot])).append('\n');
+		}
+	}
+
+	/**
+	 * Writes the kept samples as CSV to a file, replacing it if it exists.
+	 * @param file - the file to write.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public void writeCsv(Path file) throws IOException {
+		try(Writer writer = Files.newBufferedWriter(file)) {
+			writeCsv(writer);
+		}
+	}
+
+	/**
+	 * Remembers the latest values and takes a sample when one is due. Only
+	 * sampled iterations read the clock.
+	 * @param iteration - the iteration or generation.
+	 * @param firstValue - the temperature or best fitness.
+	 * @param secondValue - the cost or mean fitness.
+	 * @param count - the moves proposed or boards scored so far.
+	 */
+	private void record(int iteration, double firstValue, double secondValue, long count) {
+		lastIteration = iteration;
+		lastFirstValue = firstValue;
+		lastSecondValue = secondValue;
+		lastCount = count;
+
+		if(iteration >= nextSampledIteration) {
+			takeSample(iteration, firstValue, secondValue, count, System.nanoTime());
+			nextSampledIteration = iteration + sampleInterval;
+		}
+	}
+
+	/**
+	 * Stores a sample in the ring, along with the rate since the previous one.
+	 * @param iteration - the iteration or generation.
+	 * @param firstValue - the temperature or best fitness.
+	 * @param secondValue - the cost or mean fitness.
+	 * @param count - the moves proposed or boards scored so far.
+	 * @param time - the current time in nanoseconds.
+	 */
+	private void takeSample(int iteration, double firstValue, double secondValue, long count, long time) {
+		int slot = numberOfSamples % capacity;
+		long countSincePrevious = count - lastSampledCount;
+		double rate;
+		if(recordingGenerations) {
+			long timeSincePrevious = time - lastSampledTime;
+			rate = timeSincePrevious == 0 ? 0 : countSincePrevious / (timeSincePrevious / SECONDS_OVER_NANOSECONDS);
+		}else {
+			int acceptedSincePrevious = iteration - lastSampledIteration;
+			rate = countSincePrevious == 0 ? 0 : (double)acceptedSincePrevious / countSincePrevious;
+		}//every annealing iteration is one accepted move
+
+		iterations[slot] = iteration;
+		elapsedTimes[slot] = time - startTime;
+		firstValues[slot] = firstValue;
+		secondValues[slot] = secondValue;
+		rates[slot] = rate;
+		++numberOfSamples;
+
+		lastSampledIteration = iteration;
+		lastSampledCount = count;
+		lastSampledTime = time;
+	}
+}
\ No newline at end of file
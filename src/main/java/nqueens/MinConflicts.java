@@ -0,0 +1,172 @@
+package nqueens;
+
+import java.util.SplittableRandom;
+public class MinConflicts {
+	private State state;
+	private SplittableRandom random;
+	private double runTime;
+	private int n;
+	private int numberOfIterations;
+	private int maxNumberOfIterations;
+	private final int DESIRED_COST = 0;
+	private final int PLACEMENT_ATTEMPTS = 64;
+	private final int SWAP_PARTNERS_PER_QUEEN = 32;
+	private final int STALLED_PASSES_BEFORE_RESTART = 8;
+	
+	
+	public MinConflicts(int n, int maxNumberOfIterations) {
+		this(n, maxNumberOfIterations, new SplittableRandom());
+	}
+	
+	/**
+	 * Creates a min-conflicts solver that draws all of its random numbers from the given source.
+	 * @param n - the number of queens.
+	 * @param maxNumberOfIterations - the limit of swaps tried in a run.
+	 * @param random - the source of randomness, owned by this solver from now on.
+	 */
+	public MinConflicts(int n, int maxNumberOfIterations, SplittableRandom random) {
+		this.n = n;
+		this.maxNumberOfIterations = maxNumberOfIterations;
+		this.random = random;
+		state = new State(generateGreedyBoard());
+	}
+	
+	/**
+	 * Solves the N-Queens problem with min-conflicts local search. The board
+	 * starts with one queen per row and nearly no diagonal conflicts, and every 
+	 * queen still under attack is swapped with random partners until a swap 
+	 * lowers the cost. Swaps keep one queen per row, so only diagonals can conflict.
+	 * When several passes over the attacked queens in a row lower nothing, the 
+	 * search starts over from a new board.
+	 * @param printBoard - decide if the board should be printed at the end.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	public boolean solve(boolean printBoard) {
+		int[] attackedQueens = new int[n];
+		int stalledPasses = 0;
+		int iteration = 0;
+		int cost = state.getCost();
+		
+		long startTime = System.nanoTime();
+		while(cost != DESIRED_COST && iteration < maxNumberOfIterations) {
+			int costBeforePass = cost;
+			int numberOfAttackedQueens = 0;
+			for(int column = 0; column < n; ++column) {
+				if(state.getQueenConflicts(column) > 0) {
+					attackedQueens[numberOfAttackedQueens] = column;
+					++numberOfAttackedQueens;
+				}
+			}//few queens are attacked after the greedy start, so the board is only scanned once per pass
+			
+			for(int queen = 0; queen < numberOfAttackedQueens && cost != DESIRED_COST && iteration < maxNumberOfIterations; ++queen) {
+				int column = attackedQueens[queen];
+				if(state.getQueenConflicts(column) == 0) {
+					continue;
+				}//an earlier swap may already have freed this queen
+				
+				for(int partner = 0; partner < SWAP_PARTNERS_PER_QUEEN && iteration < maxNumberOfIterations; ++partner) {
+					int otherColumn = random.nextInt(n);
+					++iteration;
+					
+					state.swapQueens(column, otherColumn);
+					if(state.getCost() < cost) {
+						cost = state.getCost();
+						break;
+					}//keep the first swap that lowers the cost
+					state.swapQueens(column, otherColumn);
+				}
+			}
+			
+			stalledPasses = (cost < costBeforePass) ? 0 : stalledPasses + 1;
+			if(stalledPasses == STALLED_PASSES_BEFORE_RESTART) {
+				state.setQueenPlacements(generateGreedyBoard());
+				cost = state.getCost();
+				stalledPasses = 0;
+			}//the search is stuck in a local minimum, so restart it
+		}//perform the min-conflicts search
+		long endTime = System.nanoTime();
+		
+		if(printBoard) {
+	        if(cost != DESIRED_COST) {
+	        	System.out.println("No solution");
+	        }else {
+	        	state.print();
+	        	System.out.println();
+	        }
+        }//if it was requested, print the board
+        numberOfIterations = iteration;
+        runTime = endTime - startTime;
+        
+        return (cost == DESIRED_COST);
+	}
+	
+	/**
+	 * Builds a board with one queen per row, placing queens column by column on a 
+	 * random unused row whose diagonals are still free. A column that finds no 
+	 * free row within a few attempts takes any unused row.
+	 * @return the row of the queen in every column.
+	 */
+	private int[] generateGreedyBoard() {
+		int[] rows = new int[n];
+		boolean[] diagonalTaken = new boolean[2*n - 1];
+		boolean[] antiDiagonalTaken = new boolean[2*n - 1];
+		
+		for(int row = 0; row < n; ++row) {
+			rows[row] = row;
+		}//rows[column..n-1] always holds the rows nobody uses yet
+		
+		for(int column = 0; column < n; ++column) {
+			int remainingRows = n - column;
+			int chosen = column + random.nextInt(remainingRows);
+			
+			for(int attempt = 1; attempt < PLACEMENT_ATTEMPTS; ++attempt) {
+				int row = rows[chosen];
+				if(!diagonalTaken[row + column] && !antiDiagonalTaken[row - column + n - 1]) {
+					break;
+				}
+				chosen = column + random.nextInt(remainingRows);
+			}
+			
+			int row = rows[chosen];
+			rows[chosen] = rows[column];
+			rows[column] = row;
+			diagonalTaken[row + column] = true;
+			antiDiagonalTaken[row - column + n - 1] = true;
+		}
+		
+		return rows;
+	}
+	
+	/**
+	 * Gets the board of the solver.
+	 * @return the current board.
+	 */
+	public State getState() {
+		return state;
+	}
+	
+	/**
+	 * Gets the number of iterations of the solver.
+	 * @return the number of swaps the solver tried.
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+	
+	/**
+	 * Gets the run time of the solver.
+	 * @return total time to run the solver.
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+	
+	/**
+	 * Resets the solver with a new greedy board.
+	 */
+	public void reset() {
+		state.setQueenPlacements(generateGreedyBoard());
+		numberOfIterations = 0;
+		runTime = 0;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+package nqueens;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Scanner;
+public class NQueens {
+	private static final String SERVE_COMMAND = "serve";
+	private static final String CHECK_COMMAND = "check";
+	private static final int DEFAULT_PORT = 8080;
+	private static final int ADMITTED_REQUESTS_PER_SOLVER = 4;
+	
+	public static void main(String[] args) throws IOException {
+		if(args.length > 0 && args[0].equals(SERVE_COMMAND)) {
+			serve(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PORT, args.length > 2 ? Path.of(args[2]) : null);
+			return;
+		}//"serve [port] [store]" runs the solvers as a local service instead of asking questions
+		if(args.length > 1 && args[0].equals(CHECK_COMMAND)) {
+			check(Path.of(args[1]));
+			return;
+		}//"check file" tells whether a saved board is a solution
+		
+		SimulationRunner runner;
+		Scanner inputReader = new Scanner(System.in);
+		final int SIMULATED_ANNEALING_CHOICE = 1;
+		final int GENETIC_ALGORITHM_CHOICE = 2;
+		final int ISLAND_GENETIC_ALGORITHM_CHOICE = 3;
+		final int PARALLEL_TEMPERING_CHOICE = 4;
+		final int MIN_CONFLICTS_CHOICE = 5;
+		final String NO_RESULTS_FILE = "-";
+		final int LOGARITHMIC_COOLING_CHOICE = 2;
+		final int ADAPTIVE_COOLING_CHOICE = 3;
+		int coolingChoice = 1;
+		int userChoice, numberOfTests, numberOfWarmupTests, maxNumberOfIterations, n, numberOfThreads;
+		String resultsFile, solutionFile = NO_RESULTS_FILE;
+		long seed;
+		boolean permutationEncoding = false;
+		boolean localRefinement = false;
+		
+		System.out.println("Pick an algorithm to run: ");
+		System.out.println("1) Simulated Annealing");
+		System.out.println("2) Genetic Algorithm");
+		System.out.println("3) Island Genetic Algorithm (one island per thread)");
+		System.out.println("4) Parallel Tempering (one replica per thread)");
+		System.out.println("5) Min-Conflicts (for very large boards)");
+		System.out.print("Enter a number: ");
+		userChoice = inputReader.nextInt();
+
+		System.out.println("How many queens?");
+		System.out.print("Enter a number: ");
+		n = inputReader.nextInt();
+
+		System.out.println("How many tests?");
+		System.out.print("Enter a number: ");
+		numberOfTests = inputReader.nextInt();
+
+		System.out.println("How many warmup tests? (they run first and are not counted)");
+		System.out.print("Enter a number: ");
+		numberOfWarmupTests = inputReader.nextInt();
+
+		System.out.println("How many iterations?");
+		System.out.print("Enter a number: ");
+		maxNumberOfIterations = inputReader.nextInt();
+
+		System.out.println("How many threads? (1 runs the tests one at a time)");
+		System.out.print("Enter a number: ");
+		numberOfThreads = inputReader.nextInt();
+
+		System.out.println("Which seed? (0 picks a random one)");
+		System.out.print("Enter a number: ");
+		seed = inputReader.nextLong();
+		if(seed == 0) {
+			seed = System.nanoTime();
+		}
+
+		if(userChoice == SIMULATED_ANNEALING_CHOICE || userChoice == GENETIC_ALGORITHM_CHOICE) {
+			System.out.println("Keep one queen per row? (1 for yes, 0 for no)");
+			System.out.print("Enter a number: ");
+			permutationEncoding = inputReader.nextInt() == 1;
+		}
+
+		if(userChoice == GENETIC_ALGORITHM_CHOICE) {
+			System.out.println("Refine the fittest offspring with local search? (1 for yes, 0 for no)");
+			System.out.print("Enter a number: ");
+			localRefinement = inputReader.nextInt() == 1;
+		}
+
+		if(userChoice == SIMULATED_ANNEALING_CHOICE) {
+			System.out.println("Which cooling schedule? (1 geometric, 2 logarithmic, 3 adaptive)");
+			System.out.print("Enter a number: ");
+			coolingChoice = inputReader.nextInt();
+		}
+
+		System.out.println("Which file should the results be added to as JSON? (" + NO_RESULTS_FILE + " for none)");
+		System.out.print("Enter a file name: ");
+		resultsFile = inputReader.next();
+
+		if(userChoice == MIN_CONFLICTS_CHOICE) {
+			System.out.println("Which file should the last solution be written to? (" + NO_RESULTS_FILE + " for none, .bin for binary)");
+			System.out.print("Enter a file name: ");
+			solutionFile = inputReader.next();
+		}
+
+		runner = new SimulationRunner(numberOfTests, maxNumberOfIterations, n, numberOfThreads, seed);
+		if(permutationEncoding) {
+			runner.usePermutationEncoding();
+		}
+		if(coolingChoice == LOGARITHMIC_COOLING_CHOICE) {
+			runner.useCoolingSchedule(() -> new LogarithmicCooling(.3));
+		}else if(coolingChoice == ADAPTIVE_COOLING_CHOICE) {
+			runner.useCoolingSchedule(() -> new AdaptiveCooling(1, .01, .9, 50));
+		}//values were decided after testing
+		if(localRefinement) {
+			runner.useLocalRefinement(.05, 1);
+		}//refining more offspring fills the population with the same local optima
+		runner.useWarmupTests(numberOfWarmupTests);
+		if(!resultsFile.equals(NO_RESULTS_FILE)) {
+			runner.saveResultsTo(Path.of(resultsFile));
+		}
+		if(!solutionFile.equals(NO_RESULTS_FILE)) {
+			runner.saveSolutionTo(Path.of(solutionFile));
+		}
+		
+		if(userChoice == SIMULATED_ANNEALING_CHOICE) {
+			runner.runSimulatedAnnealing();
+		}else if(userChoice == ISLAND_GENETIC_ALGORITHM_CHOICE) {
+			runner.runIslandGeneticAlgorithm();
+		}else if(userChoice == PARALLEL_TEMPERING_CHOICE) {
+			runner.runParallelTempering();
+		}else if(userChoice == MIN_CONFLICTS_CHOICE) {
+			runner.runMinConflicts();
+		}else {
+			runner.runGeneticAlgorithm();
+		}
+		
+		inputReader.close();
+	}
+	
+	/**
+	 * Reads a board saved by the runner and reports whether it is a solution.
+	 * @param file - the text or binary placement file.
+	 * @throws IOException if the file cannot be read or does not hold a board.
+	 */
+	private static void check(Path file) throws IOException {
+		State board = PlacementFile.read(file);
+		System.out.println(board.getBoardLength() + " queens, " + board.getCost() + " conflicting pairs: "
+				+ (board.getCost() == 0 ? "solved" : "not solved"));
+	}
+	
+	/**
+	 * Runs the solver service until the process is stopped, with one solver 
+	 * per processor.
+	 * @param port - the port to listen on.
+	 * @param storeFile - the solution store answering requests before the solvers, or null for none.
+	 * @throws IOException if the port or the store cannot be opened.
+	 */
+	private static void serve(int port, Path storeFile) throws IOException {
+		int numberOfSolvers = Runtime.getRuntime().availableProcessors();
+		SolverService service = new SolverService(port, ADMITTED_REQUESTS_PER_SOLVER * numberOfSolvers, numberOfSolvers);
+		SolutionStore solutionStore = (storeFile == null) ? null : new SolutionStore(storeFile);
+		service.useSolutionStore(solutionStore);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			service.stop(Duration.ofSeconds(5));
+			if(solutionStore != null) {
+				try {
+					solutionStore.close();
+				}catch(IOException e) {
+					System.err.println("Could not close " + storeFile + ": " + e.getMessage());
+				}
+			}
+		}));
+		service.start();
+		System.out.println("Solving on http://localhost:" + service.getPort() + "/solve?algorithm=annealing&n=64&budgetMs=1000 with "
+				+ numberOfSolvers + " solvers");
+	}
+}
\ No newline at end of file
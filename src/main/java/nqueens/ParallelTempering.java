@@ -0,0 +1,247 @@
+package nqueens;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+public class ParallelTempering {
+	private State[] replicas;
+	private int[] replicaCosts;
+	private double[] temperatures;
+	private SplittableRandom random;
+	private SplittableRandom[] replicaRandoms;
+	private long[] swapsAttempted;
+	private long[] swapsAccepted;
+	private State solution;
+	private double runTime;
+	private int n;
+	private int numberOfIterations;
+	private int maxNumberOfIterations;
+	private int movesBetweenSwaps;
+	private int swapRound;
+	private volatile boolean finished;
+	private final int DESIRED_COST = 0;
+	
+	
+	/**
+	 * Creates a simulator that anneals several boards at once, each at a fixed 
+	 * temperature on its own thread. The temperatures are spaced geometrically
+	 * between the lowest and the highest.
+	 * @param n - the number of queens.
+	 * @param maxNumberOfIterations - the limit of moves tried by each replica.
+	 * @param numberOfReplicas - how many boards are annealed at once, at least 2.
+	 * @param lowestTemperature - the temperature of the coldest replica.
+	 * @param highestTemperature - the temperature of the hottest replica.
+	 * @param movesBetweenSwaps - how many moves each replica tries before neighbours may swap.
+	 * @param random - the source of randomness, owned by this simulator from now on.
+	 */
+	public ParallelTempering(int n, int maxNumberOfIterations, int numberOfReplicas, double lowestTemperature, 
+			double highestTemperature, int movesBetweenSwaps, SplittableRandom random) {
+		if(numberOfReplicas < 2) {
+			throw new IllegalArgumentException("Parallel tempering needs at least 2 replicas");
+		}
+		this.n = n;
+		this.maxNumberOfIterations = maxNumberOfIterations;
+		this.movesBetweenSwaps = Math.max(1, movesBetweenSwaps);
+		this.random = random;
+		
+		temperatures = new double[numberOfReplicas];
+		double ratio = Math.pow(highestTemperature / lowestTemperature, 1.0 / (numberOfReplicas - 1));
+		for(int replica = 0; replica < numberOfReplicas; ++replica) {
+			temperatures[replica] = lowestTemperature * Math.pow(ratio, replica);
+		}//a geometric ladder keeps the swap rates between neighbours roughly even
+		
+		replicas = new State[numberOfReplicas];
+		replicaCosts = new int[numberOfReplicas];
+		replicaRandoms = new SplittableRandom[numberOfReplicas];
+		swapsAttempted = new long[numberOfReplicas - 1];
+		swapsAccepted = new long[numberOfReplicas - 1];
+		reset();
+	}
+	
+	/**
+	 * Solves the N-Queens problem with parallel tempering. Each replica tries 
+	 * movesBetweenSwaps moves at its temperature, then neighbouring replicas 
+	 * exchange boards with the Metropolis probability, until a board is solved
+	 * or the iteration limit is reached.
+	 * @param printBoard - decide if the board should be printed at the end.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	public boolean solve(boolean printBoard) {
+		int numberOfReplicas = replicas.length;
+		CyclicBarrier swapPoint = new CyclicBarrier(numberOfReplicas, this::swapReplicas);
+		ExecutorService pool = Executors.newFixedThreadPool(numberOfReplicas);
+		List<Callable<Void>> replicaRunners = new ArrayList<>();
+		
+		for(int replica = 0; replica < numberOfReplicas; ++replica) {
+			int slot = replica;
+			replicaRunners.add(() -> {
+				anneal(slot, swapPoint);
+				return null;
+			});
+		}
+		
+		numberOfIterations = 0;
+		swapRound = 0;
+		checkForSolution();
+		long startTime = System.nanoTime();
+		try {
+			for(Future<Void> replicaRunner : pool.invokeAll(replicaRunners)) {
+				replicaRunner.get();
+			}
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}catch(ExecutionException e) {
+			throw new IllegalStateException("A replica failed to anneal", e.getCause());
+		}finally {
+			pool.shutdownNow();
+		}
+		long endTime = System.nanoTime();
+		
+		if(printBoard) {
+	        if(solution == null) {
+	        	System.out.println("No solution");
+	        }else {
+	        	solution.print();
+	        	System.out.println();
+	        }
+        }//if it was requested, print the board
+		runTime = endTime - startTime;
+		
+		return (solution != null);
+	}
+	
+	/**
+	 * Anneals whichever board currently sits at one temperature, until the run finishes.
+	 * @param slot - the position of the temperature in the ladder.
+	 * @param swapPoint - the barrier every replica waits at before swapping.
+	 */
+	private void anneal(int slot, CyclicBarrier swapPoint) throws InterruptedException {
+		double temperature = temperatures[slot];
+		SplittableRandom replicaRandom = replicaRandoms[slot];
+		
+		while(!finished) {
+			State replica = replicas[slot];
+			int cost = replicaCosts[slot];
+			for(int move = 0; move < movesBetweenSwaps && cost != DESIRED_COST; ++move) {
+				cost = replica.attemptMove(cost, temperature, replicaRandom);
+			}
+			replicaCosts[slot] = cost;
+			
+			try {
+				swapPoint.await();
+			}catch(BrokenBarrierException e) {
+				return;
+			}//the barrier makes the swapped boards visible to every thread
+		}
+	}
+	
+	/**
+	 * Runs on one thread while every replica waits. Ends the run if a board was 
+	 * solved or the limit was reached, and otherwise offers a swap to every 
+	 * other pair of neighbouring temperatures, alternating between the even and odd pairs.
+	 */
+	private void swapReplicas() {
+		numberOfIterations += movesBetweenSwaps;
+		if(checkForSolution() || numberOfIterations >= maxNumberOfIterations) {
+			finished = true;
+			return;
+		}
+		
+		for(int colder = swapRound % 2; colder + 1 < replicas.length; colder += 2) {
+			int hotter = colder + 1;
+			double inverseTemperatureGap = 1.0/temperatures[colder] - 1.0/temperatures[hotter];
+			double acceptedProbability = Math.exp(inverseTemperatureGap * (replicaCosts[colder] - replicaCosts[hotter]));
+			++swapsAttempted[colder];
+			
+			if(random.nextDouble() < acceptedProbability) {
+				State swappedReplica = replicas[colder];
+				replicas[colder] = replicas[hotter];
+				replicas[hotter] = swappedReplica;
+				
+				int swappedCost = replicaCosts[colder];
+				replicaCosts[colder] = replicaCosts[hotter];
+				replicaCosts[hotter] = swappedCost;
+				++swapsAccepted[colder];
+			}//a lower cost always moves to the colder temperature
+		}
+		++swapRound;
+	}
+	
+	/**
+	 * Looks for a solved replica and keeps a copy of it.
+	 * @return true if a replica is solved.
+	 */
+	private boolean checkForSolution() {
+		for(int replica = 0; replica < replicas.length; ++replica) {
+			if(replicaCosts[replica] == DESIRED_COST) {
+				solution = new State(replicas[replica]);
+				finished = true;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Gets the share of swaps that were accepted between each pair of neighbouring 
+	 * temperatures. Rates close to 0 mean the temperatures are too far apart.
+	 * @return the acceptance rate of each pair, the coldest pair first.
+	 */
+	public double[] getSwapAcceptanceRates() {
+		double[] acceptanceRates = new double[swapsAttempted.length];
+		for(int pair = 0; pair < acceptanceRates.length; ++pair) {
+			acceptanceRates[pair] = (swapsAttempted[pair] == 0) ? 0 : (double)swapsAccepted[pair] / swapsAttempted[pair];
+		}
+		return acceptanceRates;
+	}
+	
+	/**
+	 * Gets the temperature ladder.
+	 * @return the temperature of each replica, the coldest first.
+	 */
+	public double[] getTemperatures() {
+		return temperatures.clone();
+	}
+	
+	/**
+	 * Gets the number of moves each replica tried.
+	 * @return the number of iterations the simulator stepped through.
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+	
+	/**
+	 * Gets the run time of the simulation.
+	 * @return total time to run the simulator.
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+	
+	/**
+	 * Resets the parallel tempering simulator with new random boards.
+	 */
+	public void reset() {
+		for(int replica = 0; replica < replicas.length; ++replica) {
+			replicaRandoms[replica] = random.split();
+			replicas[replica] = new State(n, replicaRandoms[replica]);
+			replicaCosts[replica] = replicas[replica].getCost();
+		}
+		for(int pair = 0; pair < swapsAttempted.length; ++pair) {
+			swapsAttempted[pair] = 0;
+			swapsAccepted[pair] = 0;
+		}
+		solution = null;
+		finished = false;
+		numberOfIterations = 0;
+		runTime = 0;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,169 @@
+package nqueens;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+/**
+ * Writes and reads the row of every queen of a board in a file, which stays
+ * small where printing the board takes n squared characters. The text form
+ * holds the number of queens on its first line and the rows on the second,
+ * separated by spaces. The binary form holds a magic number, the number of
+ * queens and the rows as 4-byte integers.
+ */
+public class PlacementFile {
+	private static final int MAGIC = 0x4E51504C;
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private PlacementFile() {
+	}
+
+	/**
+	 * Writes a board in the text form.
+	 * @param file - the file, replaced if it exists.
+	 * @param board - the board.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeText(Path file, State board) throws IOException {
+		int n = board.getBoardLength();
+		try(Writer output = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+			output.write(Integer.toString(n));
+			output.write('\n');
+			for(int column = 0; column < n; ++column) {
+				if(column > 0) {
+					output.write(' ');
+				}
+				output.write(Integer.toString(board.getQueenPlacement(column)));
+			}
+			output.write('\n');
+		}
+	}
+
+	/**
+	 * Writes a board in the binary form, a buffer at a time.
+	 * @param file - the file, replaced if it exists.
+	 * @param board - the board.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static void writeBinary(Path file, State board) throws IOException {
+		int n = board.getBoardLength();
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		buffer.putInt(MAGIC).putInt(n);
+		try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			for(int column = 0; column < n; ++column) {
+				if(!buffer.hasRemaining()) {
+					writeFully(channel, buffer);
+				}
+				buffer.putInt(board.getQueenPlacement(column));
+			}
+			writeFully(channel, buffer);
+		}
+	}
+
+	/**
+	 * Reads a board written in either form, telling them apart by the magic number.
+	 * The board's cost is counted once while it is read, so checking whether
+	 * it is a solution takes time linear in its size.
+	 * @param file - the file.
+	 * @return the board.
+	 * @throws IOException if the file cannot be read or does not hold a board.
+	 */
+	public static State read(Path file) throws IOException {
+		byte[] contents = Files.readAllBytes(file);
+		ByteBuffer buffer = ByteBuffer.wrap(contents);
+		int[] rows = (contents.length >= HEADER_SIZE && buffer.getInt(0) == MAGIC)
+				? readBinary(file, buffer) : readText(file, contents);
+		for(int row : rows) {
+			if(row < 0 || row >= rows.length) {
+				throw new IOException(file + " has a queen off the board");
+			}
+		}
+		return new State(rows);
+	}
+
+	/**
+	 * Reads the rows of the binary form.
+	 * @param file - the file, for error messages.
+	 * @param buffer - the contents of the file.
+	 * @return the row of every queen.
+	 * @throws IOException if the file is cut short.
+	 */
+	private static int[] readBinary(Path file, ByteBuffer buffer) throws IOException {
+		int n = buffer.getInt(Integer.BYTES);
+		IntBuffer rows = buffer.position(HEADER_SIZE).asIntBuffer();
+		if(n < 0 || rows.remaining() != n) {
+			throw new IOException(file + " does not hold " + n + " queens");
+		}
+		int[] placements = new int[n];
+		rows.get(placements);
+		return placements;
+	}
+
+	/**
+	 * Reads the rows of the text form, parsing the digits directly instead of
+	 * splitting the text into a string per queen.
+	 * @param file - the file, for error messages.
+	 * @param contents - the contents of the file.
+	 * @return the row of every queen.
+	 * @throws IOException if the file does not hold the number of queens and their rows.
+	 */
+	private static int[] readText(Path file, byte[] contents) throws IOException {
+		final int NO_NUMBER = -1;
+		int[] placements = null;
+		int numbersRead = 0;
+		int number = NO_NUMBER;
+
+		for(int position = 0; position <= contents.length; ++position) {
+			byte character = (position < contents.length) ? contents[position] : (byte)' ';
+			if(character >= '0' && character <= '9') {
+				if(number > (Integer.MAX_VALUE - 9) / 10) {
+					throw new IOException(file + " holds a number that is too large");
+				}
+				number = ((number == NO_NUMBER) ? 0 : 10*number) + (character - '0');
+			}else if(Character.isWhitespace(character)) {
+				if(number == NO_NUMBER) {
+					continue;
+				}
+				if(placements == null) {
+					if(number > (contents.length - position) / 2) {
+						throw new IOException(file + " says it holds " + number + " queens but is too short for them");
+					}//every row takes a digit and the whitespace before it, so a header cannot ask for more rows than the file can hold
+					placements = new int[number];
+				}else if(numbersRead < placements.length) {
+					placements[numbersRead++] = number;
+				}else {
+					throw new IOException(file + " holds more than " + placements.length + " queens");
+				}
+				number = NO_NUMBER;
+			}else {
+				throw new IOException(file + " is not a placement file");
+			}
+		}//the end of the file ends the last number like a space would
+
+		if(placements == null || numbersRead != placements.length) {
+			throw new IOException(file + " does not hold as many queens as it says");
+		}
+		return placements;
+	}
+
+	/**
+	 * Writes everything in a buffer to a channel and empties it.
+	 * @param channel - the channel.
+	 * @param buffer - the buffer, filled from its start.
+	 * @throws IOException if the channel cannot be written.
+	 */
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while(buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
\ No newline at end of file
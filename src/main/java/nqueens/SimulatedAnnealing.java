@@ -0,0 +1,435 @@
+package nqueens;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+public class SimulatedAnnealing {
+	private State state;
+	private SplittableRandom random;
+	private SolverListener listener;
+	private double runTime;
+	private CoolingSchedule coolingSchedule;
+	private double temperature;
+	private int n;
+	private int numberOfIterations;
+	private int maxNumberOfIterations;
+	private boolean permutationEncoding;
+	private boolean stoppedEarly;
+	private int movesBeforeReheat;
+	private int reheatsBeforeRestart;
+	private int iteration;
+	private int movesSinceRestart;
+	private int bestCost;
+	private double temperatureAtBest;
+	private int movesAtBest;
+	private int movesWithoutImprovement;
+	private int reheatsWithoutImprovement;
+	private double runTimeBeforeResume;
+	private boolean resumed;
+	//progress of the solve, kept in fields so a checkpoint can save it
+	private Path checkpointFile;
+	private long checkpointInterval;
+	private long seed;
+	private ByteBuffer checkpointBuffer;
+	private final int DESIRED_COST = 0;
+	private final int NO_STAGNATION_RECOVERY = 0;
+	private final long NO_TIME_LIMIT = Long.MAX_VALUE;
+	private final int ITERATIONS_BETWEEN_STOP_CHECKS = 64;
+	private static final int ITERATIONS_BETWEEN_CHECKPOINTS = 1024;
+	private static final int CHECKPOINT_SIZE_WITHOUT_BOARD = 12*Integer.BYTES + 2*Long.BYTES + 3*Double.BYTES + 1;
+	
+	
+	public SimulatedAnnealing(int n, int maxNumberOfIterations) {
+		this(n, maxNumberOfIterations, new SplittableRandom());
+	}
+	
+	/**
+	 * Creates a simulator that draws all of its random numbers from the given source.
+	 * @param n - the number of queens.
+	 * @param maxNumberOfIterations - the iteration limit of a run.
+	 * @param random - the source of randomness, owned by this simulator from now on.
+	 */
+	public SimulatedAnnealing(int n, int maxNumberOfIterations, SplittableRandom random) {
+		this.n = n;
+		this.maxNumberOfIterations = maxNumberOfIterations;
+		this.random = random;
+		state = new State(n, random);
+		coolingSchedule = new GeometricCooling(100, .95);
+		//values were decided after testing
+		movesBeforeReheat = NO_STAGNATION_RECOVERY;
+	}
+	
+	/**
+	 * Solves the N-Queens problem with simulated annealing.
+	 * @param printBoard - decide if the board should be printed at the end.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	public boolean solve(boolean printBoard) {
+		boolean solved = anneal(NO_TIME_LIMIT, null, null);
+        
+        if(printBoard) {
+	        if(!solved) {
+	        	System.out.println("No solution");
+	        }else {
+	        	state.print();
+	        	System.out.println();
+	        }
+        }//if it was requested, print the board
+        return solved;
+	}
+	
+	/**
+	 * Solves the N-Queens problem with simulated annealing until the board is 
+	 * solved, the iteration limit is reached, the time runs out or the solve 
+	 * is cancelled, whichever comes first. The time and the cancellation are 
+	 * checked every few iterations, and so is the interrupt flag of the thread.
+	 * @param timeBudget - how long the solve may take.
+	 * @param cancelled - set from any thread to stop the solve, or null.
+	 * @return the best board found along with how the solve went.
+	 */
+	public SolveResult solve(Duration timeBudget, AtomicBoolean cancelled) {
+		int[] bestBoard = new int[n];
+		anneal(SolveResult.toNanoseconds(timeBudget), cancelled, bestBoard);
+		return new SolveResult(new State(bestBoard), stoppedEarly, numberOfIterations, runTime);
+	}
+	
+	/**
+	 * Performs simulated annealing on the board.
+	 * @param timeBudget - how many nanoseconds the run may take, NO_TIME_LIMIT for no limit.
+	 * @param cancelled - stops the run when set, or null.
+	 * @param bestBoard - receives the board with the lowest cost seen, or null if it is not needed.
+	 * @return true if the board was solved, false otherwise.
+	 */
+	private boolean anneal(long timeBudget, AtomicBoolean cancelled, int[] bestBoard) {
+		boolean puzzleHasNotBeenSolved, iterationLimitHasNotBeenReached, stopRequested;
+        if(!resumed) {
+        	iteration = 0;
+        	temperature = coolingSchedule.restart();
+        	movesSinceRestart = 0;
+        	bestCost = state.getCost();
+        	temperatureAtBest = temperature;
+        	movesAtBest = 0;
+        	movesWithoutImprovement = 0;
+        	reheatsWithoutImprovement = 0;
+        	runTimeBeforeResume = 0;
+        }//a resumed solve carries on where its checkpoint left off
+        resumed = false;
+        int precedentCost = state.getCost();
+        puzzleHasNotBeenSolved = precedentCost != DESIRED_COST;
+        iterationLimitHasNotBeenReached = iteration < maxNumberOfIterations;
+        stopRequested = false;
+        boolean stoppable = timeBudget != NO_TIME_LIMIT || cancelled != null;
+        int lowestCost = precedentCost;
+        if(bestBoard != null) {
+        	state.copyQueenPlacements(bestBoard);
+        }
+
+        long movesProposedBefore = state.getNumberOfMovesProposed();
+        if(listener != null) {
+        	listener.solveStarted();
+        }
+        
+        long startTime = System.nanoTime();
+        long lastCheckpointTime = startTime;
+        while(iterationLimitHasNotBeenReached && puzzleHasNotBeenSolved && !stopRequested) {
+        	long movesProposedBeforeMove = state.getNumberOfMovesProposed();
+        	int costBeforeMove = precedentCost;
+        	if(permutationEncoding) {
+        		precedentCost = state.makeSwapOnBoard(precedentCost, temperature, random);
+        	}else {
+        		precedentCost = state.makeMoveOnBoard(precedentCost, temperature, random);
+        	}
+            ++iteration;
+            ++movesSinceRestart;
+            if(bestBoard != null && precedentCost < lowestCost) {
+            	lowestCost = precedentCost;
+            	state.copyQueenPlacements(bestBoard);
+            }//restarts and uphill moves lose the best board, so a copy is kept
+            if(listener != null) {
+            	listener.annealingStep(iteration, temperature, precedentCost, state.getNumberOfMovesProposed() - movesProposedBefore);
+            }
+            temperature = coolingSchedule.cool(temperature, movesSinceRestart, state.getNumberOfMovesProposed() - movesProposedBeforeMove, 
+            		precedentCost - costBeforeMove);
+            
+            if(movesBeforeReheat != NO_STAGNATION_RECOVERY) {
+            	if(precedentCost < bestCost) {
+            		bestCost = precedentCost;
+            		temperatureAtBest = temperature;
+            		movesAtBest = movesSinceRestart;
+            		movesWithoutImprovement = 0;
+            		reheatsWithoutImprovement = 0;
+            	}else if(++movesWithoutImprovement == movesBeforeReheat) {
+            		movesWithoutImprovement = 0;
+            		temperature = temperatureAtBest;
+            		movesSinceRestart = movesAtBest;
+            		//go back to the temperature the best cost was found at, hotter ones only undo progress
+            		
+            		if(++reheatsWithoutImprovement > reheatsBeforeRestart) {
+            			reheatsWithoutImprovement = 0;
+            			generateBoard();
+            			precedentCost = state.getCost();
+            			bestCost = precedentCost;
+            			temperature = coolingSchedule.restart();
+            			temperatureAtBest = temperature;
+            			movesSinceRestart = 0;
+            			movesAtBest = 0;
+            		}//reheating did not help either, so start over on a new board
+            	}
+            }//the search is stuck when the best cost has not improved for a while
+            
+        	iterationLimitHasNotBeenReached = iteration < maxNumberOfIterations;
+        	puzzleHasNotBeenSolved = precedentCost != DESIRED_COST;
+        	if(stoppable && iteration % ITERATIONS_BETWEEN_STOP_CHECKS == 0) {
+        		stopRequested = (cancelled != null && cancelled.get()) 
+        				|| Thread.currentThread().isInterrupted() 
+        				|| System.nanoTime() - startTime >= timeBudget;
+        	}//reading the clock every iteration would cost more than small boards take to move
+        	if(checkpointFile != null && iteration % ITERATIONS_BETWEEN_CHECKPOINTS == 0) {
+        		reseed();
+        		long now = System.nanoTime();
+        		if(now - lastCheckpointTime >= checkpointInterval) {
+        			writeCheckpoint(runTimeBeforeResume + (now - startTime));
+        			lastCheckpointTime = now;
+        		}
+        	}//the random numbers only depend on the iteration, not on when checkpoints were written
+        }//perform the simulated annealing algorithm
+        long endTime = System.nanoTime();
+        if(listener != null) {
+        	listener.solveFinished(!puzzleHasNotBeenSolved, iteration);
+        }
+        numberOfIterations = iteration;
+        runTime = runTimeBeforeResume + (endTime - startTime);
+        stoppedEarly = stopRequested && puzzleHasNotBeenSolved && iterationLimitHasNotBeenReached;
+        
+        return (!puzzleHasNotBeenSolved);
+	}
+	
+	/**
+	 * Makes every later solve save its progress to a file now and then, so it
+	 * can be resumed after a crash. Progress can only be saved every 1024 
+	 * iterations, and is saved at the first such point after the interval has 
+	 * passed since the last save. From then on the random numbers are drawn 
+	 * from a new seed at every such point, so a resumed solve draws exactly 
+	 * the numbers the original would have.
+	 * @param checkpointFile - the file the progress is saved to, replaced every time.
+	 * @param interval - the least time between two saves.
+	 */
+	public void useCheckpoints(Path checkpointFile, Duration interval) {
+		this.checkpointFile = checkpointFile;
+		checkpointInterval = SolveResult.toNanoseconds(interval);
+		reseed();
+	}
+	
+	/**
+	 * Rebuilds a simulator from a checkpoint. The next solve carries on where
+	 * the checkpointed one left off and keeps saving to the same file. The 
+	 * checkpoint only saves the type and parameters of the cooling schedule, 
+	 * so a schedule of the same type with the same parameters has to be given
+	 * again; what it learned during the solve is restored.
+	 * @param checkpointFile - the file written by a simulator using checkpoints.
+	 * @param coolingSchedule - the schedule the checkpointed simulator used.
+	 * @return the simulator.
+	 * @throws IOException if the file cannot be read, is damaged, belongs to another
+	 * solver or was written with a different cooling schedule.
+	 */
+	public static SimulatedAnnealing resume(Path checkpointFile, CoolingSchedule coolingSchedule) throws IOException {
+		ByteBuffer checkpoint = Checkpoint.read(checkpointFile, Checkpoint.SIMULATED_ANNEALING);
+		try {
+			int n = checkpoint.getInt();
+			int maxNumberOfIterations = checkpoint.getInt();
+			long seed = checkpoint.getLong();
+			SimulatedAnnealing simulator = new SimulatedAnnealing(n, maxNumberOfIterations, new SplittableRandom(seed));
+			simulator.random = new SplittableRandom(seed);
+			//the constructor drew a board from the first random stream
+			simulator.permutationEncoding = checkpoint.get() != 0;
+			simulator.useCoolingSchedule(coolingSchedule);
+			simulator.useStagnationRecovery(checkpoint.getInt(), checkpoint.getInt());
+			simulator.checkpointFile = checkpointFile;
+			simulator.checkpointInterval = checkpoint.getLong();
+			simulator.seed = seed;
+			
+			simulator.iteration = checkpoint.getInt();
+			simulator.temperature = checkpoint.getDouble();
+			simulator.movesSinceRestart = checkpoint.getInt();
+			simulator.bestCost = checkpoint.getInt();
+			simulator.temperatureAtBest = checkpoint.getDouble();
+			simulator.movesAtBest = checkpoint.getInt();
+			simulator.movesWithoutImprovement = checkpoint.getInt();
+			simulator.reheatsWithoutImprovement = checkpoint.getInt();
+			simulator.runTimeBeforeResume = checkpoint.getDouble();
+			
+			if(!readScheduleDescription(checkpoint).equals(describeSchedule(coolingSchedule))) {
+				throw new IOException(checkpointFile + " was written with a different cooling schedule than the given "
+						+ coolingSchedule.getClass().getName() + ", or with other parameters");
+			}//another schedule would cool differently, so the resumed solve would not repeat the original
+			int scheduleStateSize = checkpoint.getInt();
+			if(scheduleStateSize != coolingSchedule.getStateSize()) {
+				throw new IOException(checkpointFile + " is damaged");
+			}
+			coolingSchedule.restoreState(checkpoint);
+			
+			int[] board = new int[n];
+			checkpoint.asIntBuffer().get(board);
+			simulator.state.setQueenPlacements(board);
+			simulator.resumed = true;
+			return simulator;
+		}catch(BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException(checkpointFile + " is damaged", e);
+		}//a damaged setting can make the simulator reject it
+	}
+	
+	/**
+	 * Continues with random numbers drawn from a new seed, which a checkpoint 
+	 * can store to recreate them.
+	 */
+	private void reseed() {
+		seed = random.nextLong();
+		random = new SplittableRandom(seed);
+	}
+	
+	/**
+	 * Describes a cooling schedule by its type and the parameters it was created with.
+	 * @param coolingSchedule - the schedule.
+	 * @return the description, from its position to its limit.
+	 */
+	private static ByteBuffer describeSchedule(CoolingSchedule coolingSchedule) {
+		byte[] type = coolingSchedule.getClass().getName().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer description = ByteBuffer.allocate(Integer.BYTES + type.length + coolingSchedule.getParametersSize());
+		description.putInt(type.length).put(type);
+		coolingSchedule.saveParameters(description);
+		return description.flip();
+	}
+	
+	/**
+	 * Reads the description of a cooling schedule out of a checkpoint.
+	 * @param checkpoint - the checkpoint, positioned at the description.
+	 * @return the description, from its position to its limit.
+	 */
+	private static ByteBuffer readScheduleDescription(ByteBuffer checkpoint) {
+		int size = checkpoint.getInt();
+		if(size < 0 || size > checkpoint.remaining()) {
+			throw new BufferUnderflowException();
+		}
+		ByteBuffer description = checkpoint.slice(checkpoint.position(), size);
+		checkpoint.position(checkpoint.position() + size);
+		return description;
+	}
+	
+	/**
+	 * Saves the progress of the solve to the checkpoint file.
+	 * @param runTimeSoFar - how long the solve has been running, in nanoseconds.
+	 */
+	private void writeCheckpoint(double runTimeSoFar) {
+		ByteBuffer scheduleDescription = describeSchedule(coolingSchedule);
+		int checkpointSize = CHECKPOINT_SIZE_WITHOUT_BOARD + scheduleDescription.remaining() + coolingSchedule.getStateSize() + n*Integer.BYTES;
+		if(checkpointBuffer == null || checkpointBuffer.capacity() < checkpointSize) {
+			checkpointBuffer = ByteBuffer.allocate(checkpointSize);
+		}//sized here since the cooling schedule can be changed after useCheckpoints, then reused by every checkpoint
+		ByteBuffer checkpoint = checkpointBuffer.clear();
+		checkpoint.putInt(n).putInt(maxNumberOfIterations).putLong(seed)
+			.put((byte)(permutationEncoding ? 1 : 0))
+			.putInt(movesBeforeReheat).putInt(reheatsBeforeRestart).putLong(checkpointInterval)
+			.putInt(iteration).putDouble(temperature).putInt(movesSinceRestart)
+			.putInt(bestCost).putDouble(temperatureAtBest).putInt(movesAtBest)
+			.putInt(movesWithoutImprovement).putInt(reheatsWithoutImprovement)
+			.putDouble(runTimeSoFar)
+			.putInt(scheduleDescription.remaining()).put(scheduleDescription)
+			.putInt(coolingSchedule.getStateSize());
+		coolingSchedule.saveState(checkpoint);
+		for(int column = 0; column < n; ++column) {
+			checkpoint.putInt(state.getQueenPlacement(column));
+		}
+		checkpoint.flip();
+		
+		try {
+			Checkpoint.write(checkpointFile, Checkpoint.SIMULATED_ANNEALING, checkpoint);
+		}catch(IOException e) {
+			throw new UncheckedIOException("Could not save a checkpoint to " + checkpointFile, e);
+		}
+	}
+	
+	/**
+	 * Gets the number of iterations of the simulator.
+	 * @return the number of iterations the simulator stepped through.
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+	
+	/**
+	 * Gets the run time of the simulation.
+	 * @return total time to run the simulator.
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+	
+	/**
+	 * Reports the progress of every later solve to a listener. Without one the
+	 * solve does no extra work.
+	 * @param listener - the listener, or null to stop reporting.
+	 */
+	public void setListener(SolverListener listener) {
+		this.listener = listener;
+	}
+	
+	/**
+	 * Replaces the cooling schedule. Every solve starts at the schedule's 
+	 * starting temperature.
+	 * @param coolingSchedule - the schedule, used only by this simulator.
+	 */
+	public void useCoolingSchedule(CoolingSchedule coolingSchedule) {
+		this.coolingSchedule = coolingSchedule;
+	}
+	
+	/**
+	 * Makes the simulator recover when the best cost of a solve stops improving. 
+	 * After a number of moves without improvement the temperature goes back up to
+	 * the one the best cost was found at, and the schedule carries on from the
+	 * move it was found at. After a number of such reheats without improvement 
+	 * the solve starts over on a new random board from the start of the schedule.
+	 * @param movesBeforeReheat - how many moves without improvement cause a reheat, 0 never reheats.
+	 * @param reheatsBeforeRestart - how many reheats without improvement are tried before starting over.
+	 */
+	public void useStagnationRecovery(int movesBeforeReheat, int reheatsBeforeRestart) {
+		this.movesBeforeReheat = Math.max(NO_STAGNATION_RECOVERY, movesBeforeReheat);
+		this.reheatsBeforeRestart = Math.max(0, reheatsBeforeRestart);
+	}
+	
+	/**
+	 * Switches the simulator to boards with exactly one queen per row. The
+	 * board is replaced by a random one of that kind, and moves swap the rows
+	 * of two queens instead of moving one, so no two queens ever share a row.
+	 */
+	public void usePermutationEncoding() {
+		permutationEncoding = true;
+		state.generateRandomPermutation(random);
+	}
+	
+	/**
+	 * Resets the simulated annealing simulator.
+	 */
+	public void reset() {
+		generateBoard();
+		numberOfIterations = 0;
+		runTime = 0;
+		resumed = false;
+	}
+	
+	/**
+	 * Replaces the board with a random one of the kind the simulator uses.
+	 */
+	private void generateBoard() {
+		if(permutationEncoding) {
+			state.generateRandomPermutation(random);
+		}else {
+			state.generateRandomState(random);
+		}
+	}
+}
\ No newline at end of file
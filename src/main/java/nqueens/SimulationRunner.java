@@ -0,0 +1,467 @@
+package nqueens;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+public class SimulationRunner {
+	private SimulatedAnnealing annealingRunner;
+	private GeneticAlgorithm geneticRunner;
+	private int numberOfTests, n, maxNumberOfIterations, numberOfThreads;
+	private long seed;
+	private boolean permutationEncoding;
+	private double fractionRefined;
+	private int refinementMovesPerQueen;
+	private SplittableRandom random;
+	private int numberOfWarmupTests;
+	private Path resultsFile;
+	private Path solutionFile;
+	private Supplier<CoolingSchedule> coolingSchedules;
+	private final double SECONDS_OVER_NANOSECONDS = 1_000_000_000;
+	private final boolean PRINT_BOARD = true;
+	private final int GENERATIONS_BETWEEN_MIGRATIONS = 10;
+	private final int NUMBER_OF_MIGRANTS = 2;
+	private final double COLDEST_REPLICA_TEMPERATURE = 0.05;
+	private final double HOTTEST_REPLICA_TEMPERATURE = 1.0;
+	private final int MOVES_BETWEEN_SWAPS = 200;
+	private final int LARGEST_PRINTED_BOARD = 64;
+	private final int MOVES_BEFORE_REHEAT_PER_QUEEN = 10;
+	private final int REHEATS_BEFORE_RESTART = 4;
+	private final double[] REPORTED_PERCENTILES = {50, 90, 99};
+	
+	public SimulationRunner(int numberOfTests, int maxNumberOfIterations, int n) {
+		this(numberOfTests, maxNumberOfIterations, n, 1);
+	}
+	
+	public SimulationRunner(int numberOfTests, int maxNumberOfIterations, int n, int numberOfThreads) {
+		this(numberOfTests, maxNumberOfIterations, n, numberOfThreads, new SplittableRandom().nextLong());
+	}
+	
+	/**
+	 * Creates a runner that spreads its tests over several threads.
+	 * @param numberOfTests - how many times each algorithm is run.
+	 * @param maxNumberOfIterations - the iteration limit of a single run.
+	 * @param n - the number of queens.
+	 * @param numberOfThreads - how many tests may run at once, 1 runs them one after another.
+	 * @param seed - the seed every random number of the tests is derived from, so a run can be repeated.
+	 */
+	public SimulationRunner(int numberOfTests, int maxNumberOfIterations, int n, int numberOfThreads, long seed) {
+		this.seed = seed;
+		random = new SplittableRandom(seed);
+
+		this.numberOfTests = numberOfTests;
+		this.n = n;
+		this.maxNumberOfIterations = maxNumberOfIterations;
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+	
+	/**
+	 * Makes the simulated annealing and genetic algorithm tests use boards 
+	 * with exactly one queen per row.
+	 */
+	public void usePermutationEncoding() {
+		permutationEncoding = true;
+	}
+	
+	/**
+	 * Makes the simulated annealing tests cool with a different schedule, and 
+	 * reheat or start over when they stop improving.
+	 * @param coolingSchedules - creates a new schedule for every simulator.
+	 */
+	public void useCoolingSchedule(Supplier<CoolingSchedule> coolingSchedules) {
+		this.coolingSchedules = coolingSchedules;
+	}
+	
+	/**
+	 * Runs some tests before the measured ones and leaves them out of the 
+	 * results, so the first measured tests do not pay for JIT compilation.
+	 * @param numberOfWarmupTests - how many tests to run first.
+	 */
+	public void useWarmupTests(int numberOfWarmupTests) {
+		this.numberOfWarmupTests = Math.max(0, numberOfWarmupTests);
+	}
+	
+	/**
+	 * Makes the genetic algorithm refine its fittest offspring with a short
+	 * local search every generation.
+	 * @param fractionRefined - the share of the offspring refined each generation.
+	 * @param movesPerQueen - how many moves are attempted on a refined child, per queen.
+	 */
+	public void useLocalRefinement(double fractionRefined, int movesPerQueen) {
+		this.fractionRefined = fractionRefined;
+		refinementMovesPerQueen = movesPerQueen;
+	}
+	
+	/**
+	 * Appends the results of every later run to a file, one JSON object per line.
+	 * @param resultsFile - the file, created if it does not exist.
+	 */
+	public void saveResultsTo(Path resultsFile) {
+		this.resultsFile = resultsFile;
+	}
+	
+	/**
+	 * Writes the last board min-conflicts solves to a file as the row of every
+	 * queen, binary if the name ends in .bin and text otherwise. Such boards
+	 * are too large to print, but the file can be checked with "check".
+	 * @param solutionFile - the file, replaced by every solved test.
+	 */
+	public void saveSolutionTo(Path solutionFile) {
+		this.solutionFile = solutionFile;
+	}
+	
+	public void runSimulatedAnnealing() {
+		System.out.println("Running Simulated Annealing with seed " + seed + ".");
+		if(numberOfThreads > 1) {
+			runSimulatedAnnealingInParallel();
+			return;
+		}
+		annealingRunner = createSimulatedAnnealing(random.split());
+		//simulators are only built when they run, since large boards take a lot of memory
+		report("Simulated Annealing", runTests(measured -> {
+			boolean solved = annealingRunner.solve(measured && PRINT_BOARD);
+			TrialResult result = new TrialResult(solved, annealingRunner.getNumberOfIterations(), annealingRunner.getRunTime());
+			annealingRunner.reset();
+			return result;
+		}));
+	}
+	
+	public void runGeneticAlgorithm() {
+		System.out.println("Running Genetic Algorithm with seed " + seed + ".");
+		if(numberOfThreads > 1) {
+			runGeneticAlgorithmInParallel();
+			return;
+		}
+		geneticRunner = new GeneticAlgorithm(n, maxNumberOfIterations, random.split());
+		if(permutationEncoding) {
+			geneticRunner.usePermutationEncoding();
+		}
+		geneticRunner.useLocalRefinement(fractionRefined, refinementMovesPerQueen * n);
+		report("Genetic Algorithm", runTests(measured -> {
+			boolean solved = geneticRunner.solve(measured && PRINT_BOARD);
+			TrialResult result = new TrialResult(solved, geneticRunner.getNumberOfIterations(), geneticRunner.getRunTime());
+			geneticRunner.reset();
+			return result;
+		}));
+	}
+	
+	/**
+	 * Runs the genetic algorithm tests one after another, each evolving one 
+	 * island per thread.
+	 */
+	public void runIslandGeneticAlgorithm() {
+		System.out.println("Running Island Genetic Algorithm on " + numberOfThreads + " islands with seed " + seed + ".");
+		report("Island Genetic Algorithm", runTests(measured -> {
+			IslandGeneticAlgorithm islandRunner = new IslandGeneticAlgorithm(n, maxNumberOfIterations, numberOfThreads, 
+					GENERATIONS_BETWEEN_MIGRATIONS, NUMBER_OF_MIGRANTS, random.split());
+			boolean solved = islandRunner.solve(measured && PRINT_BOARD);
+			return new TrialResult(solved, islandRunner.getNumberOfIterations(), islandRunner.getRunTime());
+		}));
+	}
+	
+	/**
+	 * Runs the parallel tempering tests one after another, each annealing one 
+	 * replica per thread, and reports how often neighbouring replicas swapped.
+	 */
+	public void runParallelTempering() {
+		int numberOfReplicas = Math.max(2, numberOfThreads);
+		double[] swapAcceptanceRates = new double[numberOfReplicas - 1];
+		System.out.println("Running Parallel Tempering with " + numberOfReplicas + " replicas with seed " + seed + ".");
+		report("Parallel Tempering", runTests(measured -> {
+			ParallelTempering temperingRunner = new ParallelTempering(n, maxNumberOfIterations, numberOfReplicas, 
+					COLDEST_REPLICA_TEMPERATURE, HOTTEST_REPLICA_TEMPERATURE, MOVES_BETWEEN_SWAPS, random.split());
+			boolean solved = temperingRunner.solve(measured && PRINT_BOARD);
+			
+			if(measured) {
+				double[] testRates = temperingRunner.getSwapAcceptanceRates();
+				for(int pair = 0; pair < swapAcceptanceRates.length; ++pair) {
+					swapAcceptanceRates[pair] += testRates[pair] / numberOfTests;
+				}
+			}
+			return new TrialResult(solved, temperingRunner.getNumberOfIterations(), temperingRunner.getRunTime());
+		}));
+		System.out.println("Average swap acceptance rates, coldest pair first: " + Arrays.toString(swapAcceptanceRates));
+	}
+	
+	/**
+	 * Runs the min-conflicts tests one after another. Boards too large to 
+	 * read on a terminal are not printed.
+	 */
+	public void runMinConflicts() {
+		boolean printBoard = PRINT_BOARD && n <= LARGEST_PRINTED_BOARD;
+		System.out.println("Running Min-Conflicts with seed " + seed + ".");
+		report("Min-Conflicts", runTests(measured -> {
+			MinConflicts conflictsRunner = new MinConflicts(n, maxNumberOfIterations, random.split());
+			boolean solved = conflictsRunner.solve(measured && printBoard);
+			if(solved && measured && solutionFile != null) {
+				writeSolution(conflictsRunner.getState());
+			}
+			return new TrialResult(solved, conflictsRunner.getNumberOfIterations(), conflictsRunner.getRunTime());
+		}));
+	}
+	
+	/**
+	 * Runs the simulated annealing tests concurrently. Every test gets its own
+	 * simulator, and boards are not printed so the output does not interleave.
+	 */
+	private void runSimulatedAnnealingInParallel() {
+		runTestsInParallel("Simulated Annealing", trialRandom -> {
+			SimulatedAnnealing simulator = createSimulatedAnnealing(trialRandom);
+			boolean solved = simulator.solve(!PRINT_BOARD);
+			return new TrialResult(solved, simulator.getNumberOfIterations(), simulator.getRunTime());
+		});
+	}
+	
+	/**
+	 * Runs the genetic algorithm tests concurrently. Every test gets its own
+	 * simulator, and boards are not printed so the output does not interleave.
+	 */
+	private void runGeneticAlgorithmInParallel() {
+		runTestsInParallel("Genetic Algorithm", trialRandom -> {
+			GeneticAlgorithm simulator = new GeneticAlgorithm(n, maxNumberOfIterations, trialRandom);
+			if(permutationEncoding) {
+				simulator.usePermutationEncoding();
+			}
+			simulator.useLocalRefinement(fractionRefined, refinementMovesPerQueen * n);
+			boolean solved = simulator.solve(!PRINT_BOARD);
+			return new TrialResult(solved, simulator.getNumberOfIterations(), simulator.getRunTime());
+		});
+	}
+	
+	/**
+	 * Writes a solved board to the solution file.
+	 * @param solution - the board.
+	 */
+	private void writeSolution(State solution) {
+		final String BINARY_EXTENSION = ".bin";
+		try {
+			if(solutionFile.toString().endsWith(BINARY_EXTENSION)) {
+				PlacementFile.writeBinary(solutionFile, solution);
+			}else {
+				PlacementFile.writeText(solutionFile, solution);
+			}
+		}catch(IOException e) {
+			throw new UncheckedIOException("Could not write the solution to " + solutionFile, e);
+		}
+	}
+	
+	/**
+	 * Creates a simulated annealing simulator set up the way the runner was asked to.
+	 * @param simulatorRandom - the simulator's source of randomness.
+	 * @return the simulator.
+	 */
+	private SimulatedAnnealing createSimulatedAnnealing(SplittableRandom simulatorRandom) {
+		SimulatedAnnealing simulator = new SimulatedAnnealing(n, maxNumberOfIterations, simulatorRandom);
+		if(permutationEncoding) {
+			simulator.usePermutationEncoding();
+		}
+		if(coolingSchedules != null) {
+			simulator.useCoolingSchedule(coolingSchedules.get());
+			simulator.useStagnationRecovery(MOVES_BEFORE_REHEAT_PER_QUEEN * n, REHEATS_BEFORE_RESTART);
+		}
+		return simulator;
+	}
+	
+	/**
+	 * Runs the warmup tests and then the measured tests one after another. 
+	 * Warmup tests give the JIT compiler time to settle and are thrown away.
+	 * @param test - runs one test, told whether it is measured.
+	 * @return the results of the measured tests.
+	 */
+	private List<TrialResult> runTests(Test test) {
+		for(int warmup = 0; warmup < numberOfWarmupTests; ++warmup) {
+			test.run(false);
+		}
+		List<TrialResult> results = new ArrayList<>();
+		for(int iteration = 0; iteration < numberOfTests; ++iteration) {
+			results.add(test.run(true));
+		}
+		return results;
+	}
+	
+	/**
+	 * Runs the warmup tests and then the measured tests on a pool of threads, 
+	 * reporting the measured ones along with the time they took altogether.
+	 * @param algorithm - the name of the algorithm in the report.
+	 * @param test - runs one test with the random stream it is given.
+	 */
+	private void runTestsInParallel(String algorithm, Function<SplittableRandom, TrialResult> test) {
+		runTrials(createTrials(numberOfWarmupTests, test));
+		List<Callable<TrialResult>> trials = createTrials(numberOfTests, test);
+		
+		long startTime = System.nanoTime();
+		List<TrialResult> results = runTrials(trials);
+		long endTime = System.nanoTime();
+		
+		report(algorithm, results);
+		System.out.println("Total time on " + numberOfThreads + " threads: " + ((endTime - startTime)/SECONDS_OVER_NANOSECONDS) + " seconds");
+	}
+	
+	/**
+	 * Creates tests that each run with their own random stream.
+	 * @param numberOfTrials - how many tests to create.
+	 * @param test - runs one test with the random stream it is given.
+	 * @return the tests.
+	 */
+	private List<Callable<TrialResult>> createTrials(int numberOfTrials, Function<SplittableRandom, TrialResult> test) {
+		List<Callable<TrialResult>> trials = new ArrayList<>();
+		for(int iteration = 0; iteration < numberOfTrials; ++iteration) {
+			SplittableRandom trialRandom = random.split();
+			//split on this thread so every test gets the same stream no matter which thread runs it
+			trials.add(() -> test.apply(trialRandom));
+		}
+		return trials;
+	}
+	
+	/**
+	 * Prints the averages, the percentiles and the solve rate of the measured 
+	 * tests, and adds them to the results file if there is one.
+	 * @param algorithm - the name of the algorithm.
+	 * @param results - the results of the measured tests.
+	 */
+	private void report(String algorithm, List<TrialResult> results) {
+		Distribution iterations = new Distribution(results.size());
+		Distribution runTimes = new Distribution(results.size());
+		double numberSolved = 0;
+		for(TrialResult result : results) {
+			if(result.solved) {
+				++numberSolved;
+			}
+			iterations.record(result.numberOfIterations);
+			runTimes.record(result.runTime / SECONDS_OVER_NANOSECONDS);
+		}
+		double solveRate = results.isEmpty() ? 0 : numberSolved / results.size() * 100;
+		
+		System.out.println("Average number of iterations: " + iterations.getMean());
+		System.out.println("Average run time: " + runTimes.getMean() + " seconds");
+		System.out.println("Iterations p50/p90/p99/max: " + describePercentiles(iterations));
+		System.out.println("Run time p50/p90/p99/max: " + describePercentiles(runTimes) + " seconds");
+		System.out.println("Solve rate: " + solveRate + "%");
+		if(numberOfWarmupTests > 0) {
+			System.out.println("(" + numberOfWarmupTests + " warmup tests were not counted)");
+		}
+		
+		if(resultsFile != null) {
+			writeResults(algorithm, iterations, runTimes, solveRate);
+		}
+	}
+	
+	/**
+	 * Lists the reported percentiles of a distribution.
+	 * @param distribution - the distribution.
+	 * @return the 50th, 90th and 99th percentiles and the maximum, separated by slashes.
+	 */
+	private String describePercentiles(Distribution distribution) {
+		StringBuilder description = new StringBuilder();
+		for(double percentile : REPORTED_PERCENTILES) {
+			description.append(distribution.getPercentile(percentile)).append(" / ");
+		}
+		return description.append(distribution.getMax()).toString();
+	}
+	
+	/**
+	 * Appends the report of a run to the results file as one line of JSON.
+	 * @param algorithm - the name of the algorithm.
+	 * @param iterations - the iterations of the measured tests.
+	 * @param runTimes - the run times of the measured tests, in seconds.
+	 * @param solveRate - the percentage of measured tests that were solved.
+	 */
+	private void writeResults(String algorithm, Distribution iterations, Distribution runTimes, double solveRate) {
+		StringBuilder line = new StringBuilder();
+		line.append("{\"algorithm\":\"").append(algorithm).append('"')
+			.append(",\"n\":").append(n)
+			.append(",\"seed\":").append(seed)
+			.append(",\"threads\":").append(numberOfThreads)
+			.append(",\"permutationEncoding\":").append(permutationEncoding)
+			.append(",\"fractionRefined\":").append(fractionRefined)
+			.append(",\"tests\":").append(iterations.getCount())
+			.append(",\"warmupTests\":").append(numberOfWarmupTests)
+			.append(",\"solveRate\":").append(solveRate)
+			.append(",\"iterations\":");
+		appendJson(line, iterations);
+		line.append(",\"runTimeSeconds\":");
+		appendJson(line, runTimes);
+		line.append("}").append(System.lineSeparator());
+		
+		try {
+			Files.writeString(resultsFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		}catch(IOException e) {
+			throw new UncheckedIOException("Could not write the results to " + resultsFile, e);
+		}
+	}
+	
+	/**
+	 * Writes the mean, the reported percentiles and the maximum of a distribution as a JSON object.
+	 * @param json - where the object goes.
+	 * @param distribution - the distribution.
+	 */
+	private void appendJson(StringBuilder json, Distribution distribution) {
+		json.append("{\"mean\":").append(distribution.getMean());
+		for(double percentile : REPORTED_PERCENTILES) {
+			json.append(",\"p").append((int)percentile).append("\":").append(distribution.getPercentile(percentile));
+		}
+		json.append(",\"max\":").append(distribution.getMax()).append('}');
+	}
+	
+	/**
+	 * Runs tests on a pool of threads and waits for all of them to finish.
+	 * Results are only read on the calling thread, so they can be added up without locking.
+	 * @param trials - the tests to run.
+	 * @return the result of every test, in the order they were given.
+	 */
+	private List<TrialResult> runTrials(List<Callable<TrialResult>> trials) {
+		ExecutorService pool = Executors.newFixedThreadPool(numberOfThreads);
+		List<TrialResult> results = new ArrayList<>();
+		try {
+			for(Future<TrialResult> trial : pool.invokeAll(trials)) {
+				results.add(trial.get());
+			}
+		}catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}catch(ExecutionException e) {
+			throw new IllegalStateException("A test failed to run", e.getCause());
+		}finally {
+			pool.shutdownNow();
+		}
+		return results;
+	}
+	
+	/**
+	 * A single test that runs on the calling thread.
+	 */
+	private interface Test {
+		/**
+		 * Runs the test.
+		 * @param measured - false for a warmup test, which prints nothing.
+		 * @return the outcome of the test.
+		 */
+		TrialResult run(boolean measured);
+	}
+	
+	/**
+	 * The outcome of a single test.
+	 */
+	private static class TrialResult {
+		private final boolean solved;
+		private final int numberOfIterations;
+		private final double runTime;
+		
+		private TrialResult(boolean solved, int numberOfIterations, double runTime) {
+			this.solved = solved;
+			this.numberOfIterations = numberOfIterations;
+			this.runTime = runTime;
+		}
+	}
+}
\ No newline at end of file
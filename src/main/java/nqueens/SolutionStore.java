@@ -0,0 +1,329 @@
+package nqueens;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+public class SolutionStore implements Closeable {
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private long endOfData;
+	private Map<Integer, Set<Board>> solutionsBySize;
+	//only the canonical form of every solution is kept, the smallest of its 8 symmetric boards
+	private static final int MAGIC = 0x4E515353;
+	private static final int VERSION = 1;
+	private static final int MAGIC_POSITION = 0, VERSION_POSITION = 4, END_OF_DATA_POSITION = 8;
+	private static final int HEADER_SIZE = 16;
+	private static final int INITIAL_SIZE = 1 << 16;
+	private static final int NUMBER_OF_SYMMETRIES = 8;
+	private static final int SOLVES_PER_MISSING_SOLUTION = 4;
+	private static final int SWAPS_PER_QUEEN = 1_000;
+
+	/**
+	 * Opens a store of solutions kept in a memory-mapped file, creating the file
+	 * if it does not exist. Every record is the number of queens followed by
+	 * the row of every queen, in one byte each for boards of up to 256 queens,
+	 * two bytes up to 65536 queens and four bytes beyond.
+	 * @param file - the file holding the solutions.
+	 * @throws IOException if the file cannot be opened or is not a solution store.
+	 */
+	public SolutionStore(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		solutionsBySize = new HashMap<>();
+		boolean newFile = channel.size() == 0;
+		map(Math.max(INITIAL_SIZE, channel.size()));
+
+		if(newFile) {
+			buffer.putInt(MAGIC_POSITION, MAGIC);
+			buffer.putInt(VERSION_POSITION, VERSION);
+			endOfData = HEADER_SIZE;
+			buffer.putLong(END_OF_DATA_POSITION, endOfData);
+			return;
+		}
+
+		if(buffer.getInt(MAGIC_POSITION) != MAGIC || buffer.getInt(VERSION_POSITION) != VERSION) {
+			channel.close();
+			throw new IOException(file + " is not a solution store");
+		}
+		endOfData = buffer.getLong(END_OF_DATA_POSITION);
+		readSolutions();
+	}
+
+	/**
+	 * Adds a solution to the store unless it, or a rotation or reflection of it,
+	 * is already there. A new solution is on the disk once this returns.
+	 * @param solution - the board, ignored if it is not a solution.
+	 * @return true if the solution was new.
+	 * @throws IOException if the file cannot grow.
+	 */
+	public synchronized boolean add(State solution) throws IOException {
+		if(solution.getCost() != 0) {
+			return false;
+		}
+		int n = solution.getBoardLength();
+		int[] rows = new int[n];
+		solution.copyQueenPlacements(rows);
+		Board canonicalForm = getCanonicalForm(rows);
+		Set<Board> solutions = solutionsBySize.computeIfAbsent(n, size -> new LinkedHashSet<>());
+		if(solutions.contains(canonicalForm)) {
+			return false;
+		}
+
+		int bytesPerRow = getBytesPerRow(n);
+		long recordSize = Integer.BYTES + (long)bytesPerRow * n;
+		if(endOfData + recordSize > buffer.capacity()) {
+			map(Math.max(2L * buffer.capacity(), endOfData + recordSize));
+		}
+
+		int recordStart = (int)endOfData;
+		int position = recordStart;
+		buffer.putInt(position, n);
+		position += Integer.BYTES;
+		for(int row : canonicalForm.rows) {
+			putRow(position, row, bytesPerRow);
+			position += bytesPerRow;
+		}
+		buffer.force(recordStart, position - recordStart);
+		endOfData = position;
+		buffer.putLong(END_OF_DATA_POSITION, endOfData);
+		buffer.force(END_OF_DATA_POSITION, Long.BYTES);
+		//mapped pages reach the disk in any order, so the record is forced before the end is moved
+		//past it, and even a crash of the whole system never leaves half a record behind
+		solutions.add(canonicalForm);
+		//only known once it is on the disk, so a failed write leaves the solution to be added again
+		return true;
+	}
+
+	/**
+	 * Counts the stored solutions for a board size, counting a solution and
+	 * its rotations and reflections once.
+	 * @param n - the number of queens.
+	 * @return the number of stored solutions.
+	 */
+	public synchronized int getNumberOfStoredSolutions(int n) {
+		Set<Board> solutions = solutionsBySize.get(n);
+		return (solutions == null) ? 0 : solutions.size();
+	}
+
+	/**
+	 * Gets distinct solutions from the store, expanding every stored solution
+	 * into its rotations and reflections.
+	 * @param n - the number of queens.
+	 * @param numberOfSolutions - how many solutions are wanted.
+	 * @return up to numberOfSolutions different solutions.
+	 */
+	public synchronized List<State> getSolutions(int n, int numberOfSolutions) {
+		Set<Board> solutions = new LinkedHashSet<>();
+		for(Board canonicalForm : solutionsBySize.getOrDefault(n, Set.of())) {
+			addSymmetries(canonicalForm.rows, solutions, numberOfSolutions);
+			if(solutions.size() == numberOfSolutions) {
+				break;
+			}
+		}
+
+		List<State> states = new ArrayList<>(solutions.size());
+		for(Board solution : solutions) {
+			states.add(new State(solution.rows));
+		}
+		return states;
+	}
+
+	/**
+	 * Gets distinct solutions, solving new boards with min-conflicts when the
+	 * store does not hold enough. New solutions are added to the store. Sizes
+	 * with few solutions may not have as many as are wanted, so the solver
+	 * only gets a few tries per missing solution.
+	 * @param n - the number of queens.
+	 * @param numberOfSolutions - how many solutions are wanted.
+	 * @param random - the source of randomness for the solver.
+	 * @return up to numberOfSolutions different solutions.
+	 * @throws IOException if the file cannot grow.
+	 */
+	public List<State> getSolutions(int n, int numberOfSolutions, SplittableRandom random) throws IOException {
+		List<State> solutions = getSolutions(n, numberOfSolutions);
+		int solvesLeft = SOLVES_PER_MISSING_SOLUTION * (numberOfSolutions - solutions.size());
+
+		while(solutions.size() < numberOfSolutions && solvesLeft > 0) {
+			MinConflicts solver = new MinConflicts(n, SWAPS_PER_QUEEN * n, random.split());
+			if(solver.solve(false) && add(solver.getState())) {
+				solutions = getSolutions(n, numberOfSolutions);
+			}//every new solution brings up to 8 boards with it
+			--solvesLeft;
+		}
+		return solutions;
+	}
+
+	/**
+	 * Writes every change to the disk, not only to the operating system.
+	 */
+	public synchronized void flush() {
+		buffer.force();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		buffer.force();
+		channel.close();
+	}
+
+	/**
+	 * Maps the file, growing it if it is shorter than the mapping.
+	 * @param size - the size of the mapping in bytes.
+	 * @throws IOException if the file cannot be mapped.
+	 */
+	private void map(long size) throws IOException {
+		if(size > Integer.MAX_VALUE) {
+			throw new IOException("A solution store cannot grow beyond 2 GB");
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	}
+
+	/**
+	 * Loads the canonical form of every solution in the file.
+	 */
+	private void readSolutions() {
+		int position = HEADER_SIZE;
+		while(position < endOfData) {
+			int n = buffer.getInt(position);
+			position += Integer.BYTES;
+			int bytesPerRow = getBytesPerRow(n);
+			int[] rows = new int[n];
+			for(int column = 0; column < n; ++column) {
+				rows[column] = getRow(position, bytesPerRow);
+				position += bytesPerRow;
+			}
+			solutionsBySize.computeIfAbsent(n, size -> new LinkedHashSet<>()).add(new Board(rows));
+		}
+	}
+
+	/**
+	 * Finds the smallest of the 8 symmetric boards of a solution, comparing the rows column by column.
+	 * @param rows - the row of the queen in every column.
+	 * @return the canonical form of the solution.
+	 */
+	private static Board getCanonicalForm(int[] rows) {
+		int[] smallest = rows;
+		for(int symmetry = 1; symmetry < NUMBER_OF_SYMMETRIES; ++symmetry) {
+			int[] transformed = transform(rows, symmetry);
+			if(Arrays.compare(transformed, smallest) < 0) {
+				smallest = transformed;
+			}
+		}
+		return new Board(smallest.clone());
+	}
+
+	/**
+	 * Adds the rotations and reflections of a solution to a set until it holds enough boards.
+	 * A symmetric solution maps onto itself, so it adds fewer than 8.
+	 * @param rows - the row of the queen in every column.
+	 * @param solutions - the set receiving the boards.
+	 * @param numberOfSolutions - the size at which to stop.
+	 */
+	private static void addSymmetries(int[] rows, Set<Board> solutions, int numberOfSolutions) {
+		for(int symmetry = 0; symmetry < NUMBER_OF_SYMMETRIES && solutions.size() < numberOfSolutions; ++symmetry) {
+			solutions.add(new Board(transform(rows, symmetry)));
+		}
+	}
+
+	/**
+	 * Rotates or reflects a solution. Symmetries 0 to 3 rotate it by that many
+	 * quarter turns, and 4 to 7 mirror it first. A solution has one queen in
+	 * every row and column, so every symmetric board is a solution again.
+	 * @param rows - the row of the queen in every column.
+	 * @param symmetry - which of the 8 symmetries to apply.
+	 * @return the row of the queen in every column of the new board.
+	 */
+	private static int[] transform(int[] rows, int symmetry) {
+		int n = rows.length;
+		int last = n - 1;
+		int[] transformed = new int[n];
+		for(int column = 0; column < n; ++column) {
+			int row = rows[column];
+			switch(symmetry) {
+				case 0: transformed[column] = row; break;
+				case 1: transformed[row] = last - column; break;
+				case 2: transformed[last - column] = last - row; break;
+				case 3: transformed[last - row] = column; break;
+				case 4: transformed[last - column] = row; break;
+				case 5: transformed[row] = column; break;
+				case 6: transformed[column] = last - row; break;
+				default: transformed[last - row] = last - column; break;
+			}
+		}
+		return transformed;
+	}
+
+	/**
+	 * Decides how many bytes a row takes in the file.
+	 * @param n - the number of queens.
+	 * @return the bytes per row.
+	 */
+	private static int getBytesPerRow(int n) {
+		if(n <= 1 << Byte.SIZE) {
+			return Byte.BYTES;
+		}
+		return (n <= 1 << Short.SIZE) ? Short.BYTES : Integer.BYTES;
+	}
+
+	/**
+	 * Writes a row to the file.
+	 * @param position - where in the file.
+	 * @param row - the row.
+	 * @param bytesPerRow - how many bytes it takes.
+	 */
+	private void putRow(int position, int row, int bytesPerRow) {
+		if(bytesPerRow == Byte.BYTES) {
+			buffer.put(position, (byte)row);
+		}else if(bytesPerRow == Short.BYTES) {
+			buffer.putShort(position, (short)row);
+		}else {
+			buffer.putInt(position, row);
+		}
+	}
+
+	/**
+	 * Reads a row from the file.
+	 * @param position - where in the file.
+	 * @param bytesPerRow - how many bytes it takes.
+	 * @return the row.
+	 */
+	private int getRow(int position, int bytesPerRow) {
+		if(bytesPerRow == Byte.BYTES) {
+			return Byte.toUnsignedInt(buffer.get(position));
+		}else if(bytesPerRow == Short.BYTES) {
+			return Short.toUnsignedInt(buffer.getShort(position));
+		}
+		return buffer.getInt(position);
+	}
+
+	/**
+	 * A board that can be kept in a set, two boards being equal when every queen is on the same row.
+	 */
+	private static class Board {
+		private final int[] rows;
+
+		private Board(int[] rows) {
+			this.rows = rows;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Board && Arrays.equals(rows, ((Board)other).rows);
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(rows);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package nqueens;
+
+import java.time.Duration;
+public class SolveResult {
+	private final State bestState;
+	private final boolean solved;
+	private final boolean stoppedEarly;
+	private final int numberOfIterations;
+	private final double runTime;
+	private static final Duration LONGEST_BUDGET = Duration.ofNanos(Long.MAX_VALUE);
+
+	/**
+	 * Creates the outcome of a solve.
+	 * @param bestState - the board with the lowest cost the solve came across.
+	 * @param stoppedEarly - whether the solve ran out of time or was cancelled.
+	 * @param numberOfIterations - how many iterations the solve took.
+	 * @param runTime - how long the solve took, in nanoseconds.
+	 */
+	public SolveResult(State bestState, boolean stoppedEarly, int numberOfIterations, double runTime) {
+		this.bestState = bestState;
+		this.solved = bestState.getCost() == 0;
+		this.stoppedEarly = stoppedEarly;
+		this.numberOfIterations = numberOfIterations;
+		this.runTime = runTime;
+	}
+
+	/**
+	 * Converts a time budget to nanoseconds. Budgets too long to count in 
+	 * nanoseconds become Long.MAX_VALUE, which solvers treat as no limit.
+	 * @param timeBudget - the budget.
+	 * @return the budget in nanoseconds, never negative.
+	 */
+	static long toNanoseconds(Duration timeBudget) {
+		if(timeBudget.compareTo(LONGEST_BUDGET) >= 0) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, timeBudget.toNanos());
+	}
+	
+	/**
+	 * Gets the best board found, which is a solution if the solve succeeded.
+	 * @return the board with the lowest cost.
+	 */
+	public State getBestState() {
+		return bestState;
+	}
+
+	/**
+	 * Gets the cost of the best board found.
+	 * @return the cost, 0 for a solution.
+	 */
+	public int getBestCost() {
+		return bestState.getCost();
+	}
+
+	/**
+	 * Checks whether a solution was found.
+	 * @return true if the best board is a solution.
+	 */
+	public boolean isSolved() {
+		return solved;
+	}
+
+	/**
+	 * Checks whether the solve was cut short by its time budget or a cancellation.
+	 * @return true if it stopped before solving the board or reaching its iteration limit.
+	 */
+	public boolean wasStoppedEarly() {
+		return stoppedEarly;
+	}
+
+	/**
+	 * Gets the number of iterations of the solve.
+	 * @return the number of iterations the solve stepped through.
+	 */
+	public int getNumberOfIterations() {
+		return numberOfIterations;
+	}
+
+	/**
+	 * Gets the run time of the solve.
+	 * @return total time of the solve, in nanoseconds.
+	 */
+	public double getRunTime() {
+		return runTime;
+	}
+}
\ No newline at end of file
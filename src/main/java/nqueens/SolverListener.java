@@ -0,0 +1,43 @@
+package nqueens;
+
+/**
+ * Receives the progress of a solver while it runs. A solver without a
+ * listener skips every call, so listening only costs something when a
+ * listener is set. Calls happen on the solving thread and should return quickly.
+ */
+public interface SolverListener {
+
+	/**
+	 * Called when a solve starts, before its first iteration.
+	 */
+	default void solveStarted() {
+	}
+
+	/**
+	 * Called after every iteration of simulated annealing.
+	 * @param iteration - how many moves have been accepted so far.
+	 * @param temperature - the temperature the last move was accepted at.
+	 * @param cost - the cost of the board now.
+	 * @param movesProposed - how many moves have been proposed so far, accepted or not.
+	 */
+	default void annealingStep(int iteration, double temperature, int cost, long movesProposed) {
+	}
+
+	/**
+	 * Called after every generation of the genetic algorithm.
+	 * @param generation - how many generations have been bred so far.
+	 * @param bestFitness - the fitness of the fittest member.
+	 * @param meanFitness - the average fitness of the population.
+	 * @param boardsEvaluated - how many boards have been scored so far.
+	 */
+	default void generationBred(int generation, int bestFitness, double meanFitness, long boardsEvaluated) {
+	}
+
+	/**
+	 * Called when a solve ends.
+	 * @param solved - whether the board was solved.
+	 * @param numberOfIterations - how many iterations the solve took.
+	 */
+	default void solveFinished(boolean solved, int numberOfIterations) {
+	}
+}
\ No newline at end of file
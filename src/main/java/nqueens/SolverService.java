@@ -0,0 +1,299 @@
+package nqueens;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+public class SolverService {
+	private HttpServer server;
+	private ExecutorService executor;
+	private Semaphore admissions;
+	private Semaphore solvers;
+	private AtomicLong requestsServed;
+	private AtomicLong requestsRejected;
+	private SolutionStore solutionStore;
+	private static final String ANNEALING = "annealing";
+	private static final String GENETIC = "genetic";
+	private static final int MAX_QUEENS = 100_000;
+	private static final long DEFAULT_BUDGET_MILLISECONDS = 1_000;
+	private static final long MAX_BUDGET_MILLISECONDS = 60_000;
+	private static final int REJECTION_THREADS = 4;
+	private static final int OK = 200, BAD_REQUEST = 400, NOT_FOUND = 404, METHOD_NOT_ALLOWED = 405, SERVICE_UNAVAILABLE = 503;
+
+	/**
+	 * Creates a service that solves boards over HTTP on the loopback address.
+	 * Requests beyond what it can admit are turned away at once instead of
+	 * piling up, and admitted requests wait for one of a fixed number of solvers.
+	 * @param port - the port to listen on, 0 picks a free one.
+	 * @param maxAdmittedRequests - how many requests may be solving or waiting at once.
+	 * @param maxConcurrentSolves - how many requests may be solving at once.
+	 * @throws IOException if the port cannot be opened.
+	 */
+	public SolverService(int port, int maxAdmittedRequests, int maxConcurrentSolves) throws IOException {
+		if(maxConcurrentSolves < 1 || maxAdmittedRequests < maxConcurrentSolves) {
+			throw new IllegalArgumentException("Need at least 1 solver and room to admit a request for every solver");
+		}
+		admissions = new Semaphore(maxAdmittedRequests);
+		solvers = new Semaphore(maxConcurrentSolves);
+		requestsServed = new AtomicLong();
+		requestsRejected = new AtomicLong();
+		executor = Executors.newFixedThreadPool(maxAdmittedRequests + REJECTION_THREADS);
+		//a thread for every admitted request plus a few to turn the rest away, so the threads are bounded too
+
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		server.createContext("/solve", this::handleSolve);
+		server.createContext("/status", this::handleStatus);
+		server.setExecutor(executor);
+	}
+
+	/**
+	 * Starts answering requests on a background thread.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stops accepting requests, gives running solves a moment to finish, and
+	 * interrupts the rest, which makes them return their best board.
+	 * @param gracePeriod - how long to wait for running solves.
+	 */
+	public void stop(Duration gracePeriod) {
+		server.stop(0);
+		executor.shutdown();
+		try {
+			if(!executor.awaitTermination(gracePeriod.toMillis(), TimeUnit.MILLISECONDS)) {
+				executor.shutdownNow();
+			}
+		}catch(InterruptedException e) {
+			executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Answers requests from a store of solutions before solving. A request for
+	 * a size the store holds gets a stored solution right away without waiting
+	 * for a solver, and every board a solver solves is added to the store. 
+	 * Requests with a seed are always solved, so they can be reproduced.
+	 * @param solutionStore - the store, or null to always solve.
+	 */
+	public void useSolutionStore(SolutionStore solutionStore) {
+		this.solutionStore = solutionStore;
+	}
+	
+	/**
+	 * Gets the port the service listens on.
+	 * @return the port.
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Solves a board described by the query parameters algorithm (annealing or
+	 * genetic), n, and optionally budgetMs, maxIterations and seed. The reply
+	 * holds the best board found within the budget.
+	 * @param exchange - the request and its response.
+	 * @throws IOException if the response cannot be sent.
+	 */
+	private void handleSolve(HttpExchange exchange) throws IOException {
+		try(exchange) {
+			if(!exchange.getRequestURI().getPath().equals("/solve")) {
+				sendJson(exchange, NOT_FOUND, error("Unknown path"));
+				return;
+			}//a context also receives every path that starts with its own
+			String method = exchange.getRequestMethod();
+			if(!method.equals("GET") && !method.equals("POST")) {
+				sendJson(exchange, METHOD_NOT_ALLOWED, error("Use GET or POST"));
+				return;
+			}
+			if(!admissions.tryAcquire()) {
+				requestsRejected.incrementAndGet();
+				exchange.getResponseHeaders().set("Retry-After", "1");
+				sendJson(exchange, SERVICE_UNAVAILABLE, error("Too many requests, try again later"));
+				return;
+			}//turned away before reading anything, so an overloaded service stays cheap to ask
+
+			try {
+				Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+				String algorithm = parameters.getOrDefault("algorithm", ANNEALING);
+				int n = Integer.parseInt(parameters.getOrDefault("n", ""));
+				long budget = Long.parseLong(parameters.getOrDefault("budgetMs", Long.toString(DEFAULT_BUDGET_MILLISECONDS)));
+				int maxNumberOfIterations = Integer.parseInt(parameters.getOrDefault("maxIterations", Integer.toString(Integer.MAX_VALUE)));
+				String seed = parameters.get("seed");
+
+				if(n < 1 || n > MAX_QUEENS || budget < 0 || budget > MAX_BUDGET_MILLISECONDS || maxNumberOfIterations < 0) {
+					sendJson(exchange, BAD_REQUEST, error("Need 1 to " + MAX_QUEENS + " queens, a budget of 0 to "
+							+ MAX_BUDGET_MILLISECONDS + " ms and a non-negative iteration limit"));
+					return;
+				}
+				if(!algorithm.equals(ANNEALING) && !algorithm.equals(GENETIC)) {
+					sendJson(exchange, BAD_REQUEST, error("The algorithm has to be " + ANNEALING + " or " + GENETIC));
+					return;
+				}
+				if(algorithm.equals(GENETIC) && n > GeneticAlgorithm.MAX_QUEENS) {
+					sendJson(exchange, BAD_REQUEST, error("The " + GENETIC + " algorithm takes at most " + GeneticAlgorithm.MAX_QUEENS + " queens"));
+					return;
+				}//its fitness counts every pair of queens in an int
+
+				SplittableRandom random = (seed == null) ? new SplittableRandom() : new SplittableRandom(Long.parseLong(seed));
+				if(solutionStore != null && seed == null) {
+					List<State> storedSolutions = solutionStore.getSolutions(n, 1);
+					if(!storedSolutions.isEmpty()) {
+						requestsServed.incrementAndGet();
+						sendJson(exchange, OK, describe(algorithm, n, new SolveResult(storedSolutions.get(0), false, 0, 0), true));
+						return;
+					}
+				}//a stored solution needs no solver, so it is not queued behind running solves
+				
+				solvers.acquire();
+				SolveResult result;
+				try {
+					if(algorithm.equals(GENETIC)) {
+						result = new GeneticAlgorithm(n, maxNumberOfIterations, random).solve(Duration.ofMillis(budget), null);
+					}else {
+						result = new SimulatedAnnealing(n, maxNumberOfIterations, random).solve(Duration.ofMillis(budget), null);
+					}
+				}finally {
+					solvers.release();
+				}//waiting here is the admission queue, the budget only starts once a solver is free
+
+				if(solutionStore != null && result.isSolved()) {
+					storeSolution(result.getBestState());
+				}
+				requestsServed.incrementAndGet();
+				sendJson(exchange, OK, describe(algorithm, n, result, false));
+			}catch(NumberFormatException e) {
+				sendJson(exchange, BAD_REQUEST, error("n, budgetMs, maxIterations and seed have to be whole numbers"));
+			}catch(InterruptedException e) {
+				Thread.currentThread().interrupt();
+				sendJson(exchange, SERVICE_UNAVAILABLE, error("The service is shutting down"));
+			}finally {
+				admissions.release();
+			}
+		}
+	}
+
+	/**
+	 * Reports how busy the service is.
+	 * @param exchange - the request and its response.
+	 * @throws IOException if the response cannot be sent.
+	 */
+	private void handleStatus(HttpExchange exchange) throws IOException {
+		try(exchange) {
+			if(!exchange.getRequestURI().getPath().equals("/status")) {
+				sendJson(exchange, NOT_FOUND, error("Unknown path"));
+				return;
+			}
+			String status = "{\"freeAdmissions\":" + admissions.availablePermits()
+					+ ",\"freeSolvers\":" + solvers.availablePermits()
+					+ ",\"served\":" + requestsServed.get()
+					+ ",\"rejected\":" + requestsRejected.get() + "}";
+			sendJson(exchange, OK, status);
+		}
+	}
+
+	/**
+	 * Adds a solved board to the solution store. A store that cannot grow 
+	 * only costs later requests a solve, so the reply is still sent.
+	 * @param solution - the board.
+	 */
+	private void storeSolution(State solution) {
+		try {
+			solutionStore.add(solution);
+		}catch(IOException e) {
+			System.err.println("Could not store a solution: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Writes the result of a solve as compact JSON, the board listing the row
+	 * of the queen in every column.
+	 * @param algorithm - the algorithm that solved it.
+	 * @param n - the number of queens.
+	 * @param result - the result of the solve.
+	 * @param fromStore - whether the board came from the solution store instead of a solver.
+	 * @return the JSON object.
+	 */
+	private String describe(String algorithm, int n, SolveResult result, boolean fromStore) {
+		final int CHARACTERS_PER_QUEEN = 7;
+		StringBuilder json = new StringBuilder(128 + CHARACTERS_PER_QUEEN*n);
+		json.append("{\"algorithm\":\"").append(algorithm).append('"')
+			.append(",\"n\":").append(n)
+			.append(",\"solved\":").append(result.isSolved())
+			.append(",\"fromStore\":").append(fromStore)
+			.append(",\"cost\":").append(result.getBestCost())
+			.append(",\"stoppedEarly\":").append(result.wasStoppedEarly())
+			.append(",\"iterations\":").append(result.getNumberOfIterations())
+			.append(",\"runTimeMs\":").append(result.getRunTime() / 1_000_000)
+			.append(",\"board\":[");
+		State board = result.getBestState();
+		for(int column = 0; column < n; ++column) {
+			if(column > 0) {
+				json.append(',');
+			}
+			json.append(board.getQueenPlacement(column));
+		}
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * Creates the JSON body of an error response.
+	 * @param message - what went wrong.
+	 * @return the JSON object.
+	 */
+	private String error(String message) {
+		return "{\"error\":\"" + message + "\"}";
+	}
+
+	/**
+	 * Sends a JSON response.
+	 * @param exchange - the request and its response.
+	 * @param status - the HTTP status code.
+	 * @param json - the body.
+	 * @throws IOException if the response cannot be sent.
+	 */
+	private void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+		byte[] body = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		exchange.sendResponseHeaders(status, body.length);
+		try(OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	/**
+	 * Splits a query string into its parameters.
+	 * @param query - the raw query, or null if there is none.
+	 * @return the decoded parameters by name.
+	 */
+	private Map<String, String> parseQuery(String query) {
+		Map<String, String> parameters = new HashMap<>();
+		if(query == null) {
+			return parameters;
+		}
+		for(String parameter : query.split("&")) {
+			int equalsSign = parameter.indexOf('=');
+			if(equalsSign > 0) {
+				parameters.put(URLDecoder.decode(parameter.substring(0, equalsSign), StandardCharsets.UTF_8),
+						URLDecoder.decode(parameter.substring(equalsSign + 1), StandardCharsets.UTF_8));
+			}
+		}
+		return parameters;
+	}
+}
\ No newline at end of file
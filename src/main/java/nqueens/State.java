@@ -0,0 +1,512 @@
+package nqueens;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+public class State {
+	private int[] queenPlacements;
+	private int boardLength;
+	private int[] queensInRow;
+	private int[] queensInDiagonal;
+	private int[] queensInAntiDiagonal;
+	private int cost;
+	private int highestFitness;
+	//occupancy of every row and diagonal, kept in step with queenPlacements
+	private int proposedColumn = NO_PROPOSAL;
+	private int rowBeforeProposal;
+	private int swappedColumn = NO_PROPOSAL;
+	private long movesProposed;
+	private static final int NO_PROPOSAL = -1;
+	
+	public State(int n, RandomGenerator random) {
+		boardLength = n;
+		queenPlacements = new int[n];
+		highestFitness = getHighestFitness(n);
+		allocateCounters();
+		generateRandomState(random);
+	}
+	
+	public State(int[] board) {
+		boardLength = board.length;
+		queenPlacements = new int[boardLength];
+		for(int row = 0; row < boardLength; ++row) {
+			queenPlacements[row] = board[row];
+		}
+		highestFitness = getHighestFitness(boardLength);
+		allocateCounters();
+		recountConflicts();
+	}
+	
+	public State(State state) {
+		boardLength = state.boardLength;
+		queenPlacements = state.queenPlacements.clone();
+		queensInRow = state.queensInRow.clone();
+		queensInDiagonal = state.queensInDiagonal.clone();
+		queensInAntiDiagonal = state.queensInAntiDiagonal.clone();
+		cost = state.cost;
+		highestFitness = state.highestFitness;
+	}
+	
+	/**
+	 * Generates a random board state.
+	 * @param random - the source of randomness.
+	 */
+	public void generateRandomState(RandomGenerator random) {
+		for (int row = 0; row < boardLength; ++row) {
+			queenPlacements[row] = random.nextInt(boardLength);
+		}
+		recountConflicts();
+	}
+	
+	/**
+	 * Generates a random board with exactly one queen in every row, so 
+	 * only diagonal conflicts are possible.
+	 * @param random - the source of randomness.
+	 */
+	public void generateRandomPermutation(RandomGenerator random) {
+		for(int column = 0; column < boardLength; ++column) {
+			int otherColumn = random.nextInt(column + 1);
+			queenPlacements[column] = queenPlacements[otherColumn];
+			queenPlacements[otherColumn] = column;
+		}//shuffle the rows while filling them in
+		recountConflicts();
+	}
+	
+	/**
+	 * Makes a move on the board with simulated annealing. The board is changed
+	 * in place, so no new state is created for any attempt.
+	 * @param precedentCost - the cost of the board currently.
+	 * @param temperature - the temperature factor.
+	 * @param random - the source of randomness.
+	 * @return the cost of the board after the move.
+	 */
+	public int makeMoveOnBoard(int precedentCost, double temperature, RandomGenerator random) {
+		while(true) {
+			int chosenRow = random.nextInt(boardLength);
+			int chosenColumn = random.nextInt(boardLength);
+			//get criteria for making a new move
+			
+			int cost = proposeMove(chosenRow, chosenColumn);
+			
+			if(acceptsMove(precedentCost, cost, temperature, random)) {
+				acceptMove();
+				return cost;
+			}
+	
+	        undoMove();
+	        //the move was not kept, so put the queen back in its original spot
+		}
+	}
+	
+	/**
+	 * Makes a move on the board with simulated annealing by swapping the rows 
+	 * of two queens, so a board with one queen per row keeps that property.
+	 * The board is changed in place.
+	 * @param precedentCost - the cost of the board currently.
+	 * @param temperature - the temperature factor.
+	 * @param random - the source of randomness.
+	 * @return the cost of the board after the swap.
+	 */
+	public int makeSwapOnBoard(int precedentCost, double temperature, RandomGenerator random) {
+		while(true) {
+			int firstColumn = random.nextInt(boardLength);
+			int secondColumn = random.nextInt(boardLength);
+			
+			int cost = proposeSwap(firstColumn, secondColumn);
+			
+			if(acceptsMove(precedentCost, cost, temperature, random)) {
+				acceptMove();
+				return cost;
+			}
+			
+			undoMove();
+			//the swap was not kept, so swap the queens back
+		}
+	}
+	
+	/**
+	 * Tries a single random move with simulated annealing, keeping the board
+	 * as it is if the move is not accepted.
+	 * @param precedentCost - the cost of the board currently.
+	 * @param temperature - the temperature factor.
+	 * @param random - the source of randomness.
+	 * @return the cost of the board afterwards, which is precedentCost if the move was not kept.
+	 */
+	public int attemptMove(int precedentCost, double temperature, RandomGenerator random) {
+		int cost = proposeMove(random.nextInt(boardLength), random.nextInt(boardLength));
+		
+		if(acceptsMove(precedentCost, cost, temperature, random)) {
+			acceptMove();
+			return cost;
+		}
+		undoMove();
+		return precedentCost;
+	}
+	
+	/**
+	 * Tries a single random swap of the rows of two queens with simulated
+	 * annealing, keeping the board as it is if the swap is not accepted.
+	 * @param precedentCost - the cost of the board currently.
+	 * @param temperature - the temperature factor.
+	 * @param random - the source of randomness.
+	 * @return the cost of the board afterwards, which is precedentCost if the swap was not kept.
+	 */
+	public int attemptSwap(int precedentCost, double temperature, RandomGenerator random) {
+		int cost = proposeSwap(random.nextInt(boardLength), random.nextInt(boardLength));
+		
+		if(acceptsMove(precedentCost, cost, temperature, random)) {
+			acceptMove();
+			return cost;
+		}
+		undoMove();
+		return precedentCost;
+	}
+	
+	/**
+	 * Decides whether a move is kept, using the Metropolis criterion.
+	 * @param precedentCost - the cost of the board before the move.
+	 * @param cost - the cost of the board after the move.
+	 * @param temperature - the temperature factor.
+	 * @param random - the source of randomness.
+	 * @return true if the move should be kept.
+	 */
+	private boolean acceptsMove(int precedentCost, int cost, double temperature, RandomGenerator random) {
+		if(cost < precedentCost) {
+			return true;
+		}//if the cost is better than the previous, keep the move.
+		
+		int delta_E = precedentCost - cost;
+        double acceptedProbability = Math.exp(delta_E / temperature);
+        return random.nextDouble() < acceptedProbability;
+        //simulated annealing aspect 
+	}
+	
+	/**
+	 * Tentatively moves a queen. The move has to be either accepted or undone
+	 * before another one is proposed.
+	 * @param newRow - the row the queen will be moved to.
+	 * @param column - the column of the queen.
+	 * @return the cost of the board with the proposed move made.
+	 */
+	public int proposeMove(int newRow, int column) {
+		++movesProposed;
+		proposedColumn = column;
+		rowBeforeProposal = queenPlacements[column];
+		moveQueen(newRow, column);
+		return cost;
+	}
+	
+	/**
+	 * Tentatively swaps the rows of two queens. The swap has to be either 
+	 * accepted or undone before another move is proposed.
+	 * @param firstColumn - the column of the first queen.
+	 * @param secondColumn - the column of the second queen.
+	 * @return the cost of the board with the proposed swap made.
+	 */
+	public int proposeSwap(int firstColumn, int secondColumn) {
+		++movesProposed;
+		proposedColumn = firstColumn;
+		swappedColumn = secondColumn;
+		swapQueens(firstColumn, secondColumn);
+		return cost;
+	}
+	
+	/**
+	 * Keeps the last proposed move or swap.
+	 */
+	public void acceptMove() {
+		proposedColumn = NO_PROPOSAL;
+		swappedColumn = NO_PROPOSAL;
+	}
+	
+	/**
+	 * Reverts the last proposed move or swap, putting the queens back where they were.
+	 */
+	public void undoMove() {
+		if(swappedColumn != NO_PROPOSAL) {
+			swapQueens(proposedColumn, swappedColumn);
+		}else if(proposedColumn != NO_PROPOSAL) {
+			moveQueen(rowBeforeProposal, proposedColumn);
+		}
+		proposedColumn = NO_PROPOSAL;
+		swappedColumn = NO_PROPOSAL;
+	}
+	
+	
+	/**
+	 * Gets how many moves and swaps have been proposed on this board, whether
+	 * they were accepted or not.
+	 * @return the number of proposals so far.
+	 */
+	public long getNumberOfMovesProposed() {
+		return movesProposed;
+	}
+	
+	/**
+	 * Returns the value of a the row the queen is at in a column.
+	 * @param column - the column of the desired row.
+	 * @return the row at the specified column.
+	 */
+	public int getQueenPlacement(int column) {
+		return queenPlacements[column];
+	}
+	
+	/**
+	 * Gets the cost of a state, based on the numbers of misplaced queens.
+	 * Every pair of queens sharing a row or a diagonal counts once.
+	 * @return the cost of the state.
+	 */
+	public int getCost() {
+		return cost;
+	}
+	
+	/**
+	 * Calculates how the cost would change if a queen was moved, without moving it.
+	 * @param column - the column of the queen.
+	 * @param newRow - the row the queen would be moved to.
+	 * @return the difference between the cost after the move and the current cost.
+	 */
+	public int getCostDelta(int column, int newRow) {
+		int previousRow = queenPlacements[column];
+		if(newRow == previousRow) {
+			return 0;
+		}
+		
+		int conflictsGained = queensInRow[newRow] 
+				+ queensInDiagonal[newRow + column] 
+				+ queensInAntiDiagonal[antiDiagonalOf(newRow, column)];
+		int conflictsLost = (queensInRow[previousRow] - 1) 
+				+ (queensInDiagonal[previousRow + column] - 1) 
+				+ (queensInAntiDiagonal[antiDiagonalOf(previousRow, column)] - 1);
+		//two squares in the same column never share a row or a diagonal, so the counts are independent
+		
+		return conflictsGained - conflictsLost;
+	}
+	
+	/**
+	 * Gets the fitness of the node. The cost is kept up to date by every move,
+	 * so this does not need to look at the board.
+	 * @return the fitness value of the node.
+	 */
+	public int getFitness() {
+		return highestFitness - cost;
+	}
+	
+	/**
+	 * Calculates the highest fitness a node can have. Boards of more than 
+	 * GeneticAlgorithm.MAX_QUEENS queens have more pairs than an int holds, 
+	 * so their highest fitness stops at Integer.MAX_VALUE.
+	 * @param n - the size of the board in the state.
+	 * @return the highest achievable fitness
+	 */
+    public int getHighestFitness(int n) {
+        return (int)Math.min((long)n*(n-1)/2, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Determines if a state has poor fitness.
+     * @return true if the node is below half of the highest fitness level.
+     */
+    public boolean isSlow() {
+		return (getFitness()) < (highestFitness/2);
+	}
+	
+	/**
+	 * Puts a queen on a new square.
+	 * @param newRow - the new row the queen will be on.
+	 * @param newColumn - the new column the queen will be on.
+	 */
+	public void moveQueen(int newRow, int newColumn) {
+		int previousRow = queenPlacements[newColumn];
+		if(newRow == previousRow) {
+			return;
+		}
+		removeQueen(previousRow, newColumn);
+		queenPlacements[newColumn] = newRow;
+		placeQueen(newRow, newColumn);
+	}
+	
+	/**
+	 * Exchanges the rows of two queens. A board where every row holds one 
+	 * queen keeps that property.
+	 * @param firstColumn - the column of the first queen.
+	 * @param secondColumn - the column of the second queen.
+	 */
+	public void swapQueens(int firstColumn, int secondColumn) {
+		int firstRow = queenPlacements[firstColumn];
+		moveQueen(queenPlacements[secondColumn], firstColumn);
+		moveQueen(firstRow, secondColumn);
+	}
+	
+	/**
+	 * Counts the queens that share a row or a diagonal with a queen.
+	 * @param column - the column of the queen.
+	 * @return the number of queens in conflict with it.
+	 */
+	public int getQueenConflicts(int column) {
+		int row = queenPlacements[column];
+		return (queensInRow[row] - 1) 
+				+ (queensInDiagonal[row + column] - 1) 
+				+ (queensInAntiDiagonal[antiDiagonalOf(row, column)] - 1);
+	}
+	
+	/**
+	 * Gets the board length.
+	 * @return the length of the board.
+	 */
+	public int getBoardLength() {
+		return queenPlacements.length;
+	}
+	
+	/**
+	 * Copies the queen placements into an array, without creating a new one.
+	 * @param destination - the array receiving the placements, at least as long as the board.
+	 */
+	public void copyQueenPlacements(int[] destination) {
+		System.arraycopy(queenPlacements, 0, destination, 0, boardLength);
+	}
+	
+	/**
+	 * Copies the queen placements into a board stored inside a larger array.
+	 * @param destination - the array receiving the board.
+	 * @param firstPlacement - the position of the board's first queen placement.
+	 */
+	public void copyQueenPlacements(int[] destination, int firstPlacement) {
+		System.arraycopy(queenPlacements, 0, destination, firstPlacement, boardLength);
+	}
+	
+	/**
+	 * Changes the board of the state to a new board.
+	 * @param newBoard - the board the queenPlacements should conform to.
+	 */
+	public void setQueenPlacements(int[] newBoard) {
+		int n = newBoard.length;
+		for(int row = 0; row < n; ++row) {
+			queenPlacements[row] = newBoard[row];
+		}
+		recountConflicts();
+	}
+	
+	/**
+	 * Changes the board of the state to a board stored inside a larger array.
+	 * @param boards - the array holding the board.
+	 * @param firstPlacement - the position of the board's first queen placement.
+	 */
+	public void setQueenPlacements(int[] boards, int firstPlacement) {
+		System.arraycopy(boards, firstPlacement, queenPlacements, 0, boardLength);
+		recountConflicts();
+	}
+	
+	/**
+	 * Creates the row and diagonal occupancy counters for the board.
+	 */
+	private void allocateCounters() {
+		final int numberOfDiagonals = 2*boardLength - 1;
+		queensInRow = new int[boardLength];
+		queensInDiagonal = new int[numberOfDiagonals];
+		queensInAntiDiagonal = new int[numberOfDiagonals];
+	}
+	
+	/**
+	 * Rebuilds the occupancy counters and the cost from the queen placements.
+	 */
+	private void recountConflicts() {
+		Arrays.fill(queensInRow, 0);
+		Arrays.fill(queensInDiagonal, 0);
+		Arrays.fill(queensInAntiDiagonal, 0);
+		cost = 0;
+		
+		for(int column = 0; column < boardLength; ++column) {
+			placeQueen(queenPlacements[column], column);
+		}
+	}
+	
+	/**
+	 * Adds a queen to the occupancy counters, counting the queens it now conflicts with.
+	 * @param row - the row of the queen.
+	 * @param column - the column of the queen.
+	 */
+	private void placeQueen(int row, int column) {
+		cost += queensInRow[row]++;
+		cost += queensInDiagonal[row + column]++;
+		cost += queensInAntiDiagonal[antiDiagonalOf(row, column)]++;
+	}
+	
+	/**
+	 * Removes a queen from the occupancy counters, forgetting the queens it conflicted with.
+	 * @param row - the row of the queen.
+	 * @param column - the column of the queen.
+	 */
+	private void removeQueen(int row, int column) {
+		cost -= --queensInRow[row];
+		cost -= --queensInDiagonal[row + column];
+		cost -= --queensInAntiDiagonal[antiDiagonalOf(row, column)];
+	}
+	
+	/**
+	 * Gets the index of the anti-diagonal a square is on.
+	 * @param row - the row of the square.
+	 * @param column - the column of the square.
+	 * @return the index of the anti-diagonal, between 0 and 2n-2.
+	 */
+	private int antiDiagonalOf(int row, int column) {
+		return row - column + boardLength - 1;
+	}
+	
+	/**
+	 * Prints out the board in a chess board like format.
+	 */
+	public void print() {
+		final int BUFFER_SIZE = 1 << 16;
+		Writer output = new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE);
+		try {
+			print(output);
+			output.flush();
+		}catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}//System.out never throws, it only sets its error flag
+	}
+	
+	/**
+	 * Writes the board in a chess board like format, the top row first. Each 
+	 * row is built in one reused line and written whole, so the board is 
+	 * never held in memory, and the queens of a row are found through an 
+	 * index instead of scanning every column.
+	 * @param output - where the board is written, buffered by the caller if needed.
+	 * @throws IOException if the board cannot be written.
+	 */
+	public void print(Writer output) throws IOException {
+		final int NO_COLUMN = -1;
+		final int CHARACTERS_PER_SQUARE = 2;
+		String lineSeparator = System.lineSeparator();
+		char[] line = new char[CHARACTERS_PER_SQUARE*boardLength];
+		for(int column = 0; column < boardLength; ++column) {
+			line[CHARACTERS_PER_SQUARE*column] = ' ';
+			line[CHARACTERS_PER_SQUARE*column + 1] = '|';
+		}
+		
+		int[] firstColumnInRow = new int[boardLength];
+		int[] nextColumnInRow = new int[boardLength];
+		Arrays.fill(firstColumnInRow, NO_COLUMN);
+		for(int column = boardLength - 1; column >= 0; --column) {
+			int row = queenPlacements[column];
+			nextColumnInRow[column] = firstColumnInRow[row];
+			firstColumnInRow[row] = column;
+		}//every row lists its queens, so a row without one costs nothing to find
+		
+		for(int row = boardLength - 1; row >= 0; --row) {
+			for(int column = firstColumnInRow[row]; column != NO_COLUMN; column = nextColumnInRow[column]) {
+				line[CHARACTERS_PER_SQUARE*column] = 'Q';
+			}
+			output.write(line);
+			output.write(lineSeparator);
+			for(int column = firstColumnInRow[row]; column != NO_COLUMN; column = nextColumnInRow[column]) {
+				line[CHARACTERS_PER_SQUARE*column] = ' ';
+			}
+		}//print out the board row by row with queen placements
+	}
+}
\ No newline at end of file
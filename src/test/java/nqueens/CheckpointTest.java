@@ -0,0 +1,178 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CheckpointTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void stateComesBackAsItWasWritten() throws IOException {
+		Path file = directory.resolve("state.ckpt");
+		ByteBuffer state = ByteBuffer.allocate(64);
+		for(int value = 0; value < 16; ++value) {
+			state.putInt(value * 31);
+		}
+		state.flip();
+		Checkpoint.write(file, Checkpoint.SIMULATED_ANNEALING, state);
+
+		ByteBuffer read = Checkpoint.read(file, Checkpoint.SIMULATED_ANNEALING);
+		assertEquals(64, read.remaining());
+		for(int value = 0; value < 16; ++value) {
+			assertEquals(value * 31, read.getInt());
+		}
+		assertFalse(Files.exists(directory.resolve("state.ckpt.tmp")));
+	}
+
+	@Test
+	void damagedOrForeignFilesAreRejected() throws IOException {
+		Path file = directory.resolve("state.ckpt");
+		ByteBuffer state = ByteBuffer.allocate(32);
+		state.putLong(1).putLong(2).putLong(3).putLong(4).flip();
+		Checkpoint.write(file, Checkpoint.GENETIC_ALGORITHM, state);
+		assertThrows(IOException.class, () -> Checkpoint.read(file, Checkpoint.SIMULATED_ANNEALING));
+
+		byte[] contents = Files.readAllBytes(file);
+		contents[20] ^= 1;
+		Files.write(file, contents);
+		assertThrows(IOException.class, () -> Checkpoint.read(file, Checkpoint.GENETIC_ALGORITHM));
+
+		Files.write(file, new byte[] {1, 2, 3});
+		assertThrows(IOException.class, () -> Checkpoint.read(file, Checkpoint.GENETIC_ALGORITHM));
+	}
+
+	@Test
+	void resumedAnnealingRepeatsTheUninterruptedSolve() throws IOException {
+		final int n = 300, iterations = 6000, stopAt = 2048;
+		List<Integer> uninterruptedCosts = new ArrayList<>();
+		SimulatedAnnealing uninterrupted = new SimulatedAnnealing(n, iterations, new SplittableRandom(8));
+		uninterrupted.useStagnationRecovery(200, 3);
+		uninterrupted.useCheckpoints(directory.resolve("uninterrupted.ckpt"), Duration.ZERO);
+		uninterrupted.setListener(recordCosts(uninterruptedCosts));
+		uninterrupted.solve(false);
+
+		Path file = directory.resolve("interrupted.ckpt");
+		AtomicBoolean cancelled = new AtomicBoolean();
+		SimulatedAnnealing interrupted = new SimulatedAnnealing(n, iterations, new SplittableRandom(8));
+		interrupted.useStagnationRecovery(200, 3);
+		interrupted.useCheckpoints(file, Duration.ZERO);
+		interrupted.setListener(new SolverListener() {
+			@Override
+			public void annealingStep(int iteration, double temperature, int cost, long movesProposed) {
+				if(iteration == stopAt) {
+					cancelled.set(true);
+				}
+			}
+		});
+		assertTrue(interrupted.solve(Duration.ofHours(1), cancelled).wasStoppedEarly());
+
+		List<Integer> resumedCosts = new ArrayList<>();
+		SimulatedAnnealing resumed = SimulatedAnnealing.resume(file, new GeometricCooling(100, .95));
+		resumed.setListener(recordCosts(resumedCosts));
+		resumed.solve(false);
+		assertEquals(uninterruptedCosts.subList(stopAt, uninterruptedCosts.size()), resumedCosts);
+		assertEquals(uninterrupted.getNumberOfIterations(), resumed.getNumberOfIterations());
+	}
+
+	@Test
+	void annealingIsOnlyResumedWithTheSameCoolingSchedule() throws IOException {
+		Path file = directory.resolve("annealing.ckpt");
+		SimulatedAnnealing simulator = new SimulatedAnnealing(300, 2048, new SplittableRandom(12));
+		simulator.useCoolingSchedule(new AdaptiveCooling(50, 0.2, 0.9, 100));
+		simulator.useCheckpoints(file, Duration.ZERO);
+		simulator.solve(false);
+
+		assertThrows(IOException.class, () -> SimulatedAnnealing.resume(file, new GeometricCooling(50, 0.9)));
+		assertThrows(IOException.class, () -> SimulatedAnnealing.resume(file, new LogarithmicCooling(50)));
+		assertThrows(IOException.class, () -> SimulatedAnnealing.resume(file, new AdaptiveCooling(50, 0.2, 0.9, 101)));
+		assertEquals(2048, SimulatedAnnealing.resume(file, new AdaptiveCooling(50, 0.2, 0.9, 100)).solve(Duration.ofHours(1), null)
+				.getNumberOfIterations());
+	}
+
+	@Test
+	void resumedGeneticAlgorithmRepeatsTheUninterruptedSolve() throws IOException {
+		final int n = 40, generations = 120, stopAt = 50;
+		GeneticAlgorithm uninterrupted = createGeneticAlgorithm(n, generations);
+		uninterrupted.useCheckpoints(directory.resolve("uninterrupted.ckpt"), Duration.ZERO);
+		boolean solved = uninterrupted.solve(false);
+
+		Path file = directory.resolve("interrupted.ckpt");
+		AtomicBoolean cancelled = new AtomicBoolean();
+		GeneticAlgorithm interrupted = createGeneticAlgorithm(n, generations);
+		interrupted.useCheckpoints(file, Duration.ZERO);
+		interrupted.setListener(new SolverListener() {
+			@Override
+			public void generationBred(int generation, int bestFitness, double meanFitness, long boardsEvaluated) {
+				if(generation == stopAt) {
+					cancelled.set(true);
+				}
+			}
+		});
+		assertTrue(interrupted.solve(Duration.ofHours(1), cancelled).wasStoppedEarly());
+
+		GeneticAlgorithm resumed = GeneticAlgorithm.resume(file, null);
+		assertEquals(solved, resumed.solve(false));
+		assertEquals(uninterrupted.getNumberOfIterations(), resumed.getNumberOfIterations());
+		State[] expected = uninterrupted.getFittestMembers(30);
+		State[] actual = resumed.getFittestMembers(30);
+		for(int member = 0; member < expected.length; ++member) {
+			assertArrayEquals(getRows(expected[member]), getRows(actual[member]));
+		}
+	}
+
+	/**
+	 * Creates the genetic algorithm both runs of the resume test use.
+	 * @param n - the number of queens.
+	 * @param generations - the generation limit.
+	 * @return the genetic algorithm.
+	 */
+	private static GeneticAlgorithm createGeneticAlgorithm(int n, int generations) {
+		GeneticAlgorithm simulator = new GeneticAlgorithm(n, generations, 30, 60, 0.5, new SplittableRandom(9), null);
+		simulator.usePermutationEncoding();
+		simulator.useLocalRefinement(0.2, 10);
+		simulator.rejectDuplicateOffspring(true);
+		return simulator;
+	}
+
+	/**
+	 * Creates a listener keeping the cost after every annealing step.
+	 * @param costs - receives the costs.
+	 * @return the listener.
+	 */
+	private static SolverListener recordCosts(List<Integer> costs) {
+		return new SolverListener() {
+			@Override
+			public void annealingStep(int iteration, double temperature, int cost, long movesProposed) {
+				costs.add(cost);
+			}
+		};
+	}
+
+	/**
+	 * Copies the rows of the queens of a board.
+	 * @param state - the board.
+	 * @return the row of the queen in every column.
+	 */
+	private static int[] getRows(State state) {
+		int[] rows = new int[state.getBoardLength()];
+		state.copyQueenPlacements(rows);
+		return rows;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class DistributionTest {
+	@Test
+	void percentilesUseTheNearestRank() {
+		Distribution distribution = new Distribution(4);
+		for(double value : new double[] {40, 10, 30, 20, 50}) {
+			distribution.record(value);
+		}
+		assertEquals(5, distribution.getCount());
+		assertEquals(30, distribution.getMean());
+		assertEquals(10, distribution.getPercentile(0));
+		assertEquals(10, distribution.getPercentile(20));
+		assertEquals(20, distribution.getPercentile(21));
+		assertEquals(30, distribution.getPercentile(50));
+		assertEquals(40, distribution.getPercentile(80));
+		assertEquals(50, distribution.getPercentile(81));
+		assertEquals(50, distribution.getPercentile(100));
+		assertEquals(50, distribution.getMax());
+	}
+
+	@Test
+	void everyValueIsKept() {
+		Distribution distribution = new Distribution(1);
+		for(int value = 1000; value >= 1; --value) {
+			distribution.record(value);
+		}
+		assertEquals(1000, distribution.getCount());
+		assertEquals(500, distribution.getPercentile(50));
+		assertEquals(990, distribution.getPercentile(99));
+		assertEquals(999, distribution.getPercentile(99.9));
+		assertEquals(1000, distribution.getMax());
+
+		distribution.record(0);
+		assertEquals(0, distribution.getPercentile(0));
+		assertEquals(1001, distribution.getCount());
+		assertEquals(1000, distribution.getMax());
+	}
+
+	@Test
+	void emptyDistributionsReportZero() {
+		Distribution distribution = new Distribution(8);
+		assertEquals(0, distribution.getCount());
+		assertEquals(0, distribution.getMean());
+		assertEquals(0, distribution.getPercentile(50));
+		assertEquals(0, distribution.getMax());
+	}
+}
\ No newline at end of file
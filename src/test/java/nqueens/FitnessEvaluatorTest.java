@@ -0,0 +1,120 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class FitnessEvaluatorTest {
+	private static final int LARGEST_BOARD = 200;
+	private static final int BOARDS_PER_KIND = 8;
+
+	@Test
+	void scoresLikeARecount() {
+		SplittableRandom random = new SplittableRandom(11);
+		for(int n = 1; n <= LARGEST_BOARD; ++n) {
+			State[] boards = new State[5*BOARDS_PER_KIND];
+			for(int board = 0; board < BOARDS_PER_KIND; ++board) {
+				boards[board] = new State(n, random);
+				boards[BOARDS_PER_KIND + board] = createPermutationBoard(n, random);
+				boards[2*BOARDS_PER_KIND + board] = createNearlySolvedBoard(n, random);
+				boards[3*BOARDS_PER_KIND + board] = createCrowdedBoard(n, 2, random);
+				boards[4*BOARDS_PER_KIND + board] = createCrowdedBoard(n, 1 + random.nextInt(4), random);
+			}
+			assertScores(n, boards);
+		}
+	}
+
+	@Test
+	void scoresBoardsWithEveryQueenOnOneLine() {
+		for(int n = 1; n <= LARGEST_BOARD; ++n) {
+			int[] sameRow = new int[n];
+			int[] diagonal = new int[n];
+			int[] antiDiagonal = new int[n];
+			int[] zigzag = new int[n];
+			for(int column = 0; column < n; ++column) {
+				sameRow[column] = n / 2;
+				diagonal[column] = column;
+				antiDiagonal[column] = n - 1 - column;
+				zigzag[column] = column % 2 == 0 ? column : n - 1 - column;
+			}//the zigzag puts half the queens on a diagonal and the other half on an anti-diagonal
+			State[] boards = {new State(sameRow), new State(diagonal), new State(antiDiagonal), new State(zigzag)};
+			assertEquals(n*(n - 1)/2, boards[0].getCost());
+			assertEquals(n*(n - 1)/2, boards[1].getCost());
+			assertScores(n, boards);
+		}
+	}
+
+	/**
+	 * Scores boards one at a time and in a batch, at offsets inside a larger
+	 * array the way the population is stored, and compares every score with a
+	 * recount and with State.
+	 * @param n - the number of queens.
+	 * @param boards - the boards.
+	 */
+	private static void assertScores(int n, State[] boards) {
+		FitnessEvaluator evaluator = new FitnessEvaluator(n);
+		int[] genes = new int[(boards.length + 1) * n];
+		for(int board = 0; board < boards.length; ++board) {
+			boards[board].copyQueenPlacements(genes, (board + 1)*n);
+		}//the first board's place is left empty so every board is read at an offset
+		int[] fitness = new int[boards.length + 1];
+		evaluator.evaluate(genes, 1, boards.length, fitness);
+
+		for(int board = 0; board < boards.length; ++board) {
+			int expectedCost = StateTest.countConflicts(boards[board]);
+			int firstGene = (board + 1)*n;
+			assertEquals(expectedCost, boards[board].getCost());
+			assertEquals(expectedCost, evaluator.getCost(genes, firstGene));
+			assertEquals(boards[board].getFitness(), evaluator.getFitness(genes, firstGene));
+			assertEquals(boards[board].getFitness(), fitness[board + 1]);
+		}
+	}
+
+	/**
+	 * Creates a random board with one queen in every row.
+	 * @param n - the number of queens.
+	 * @param random - the source of randomness.
+	 * @return the board.
+	 */
+	private static State createPermutationBoard(int n, SplittableRandom random) {
+		State board = new State(n, random);
+		board.generateRandomPermutation(random);
+		return board;
+	}
+
+	/**
+	 * Solves a board with min-conflicts and moves one queen, so the board has
+	 * the few conflicts the genetic algorithm sees near the end of a solve.
+	 * Sizes without a solution keep whatever board the solver ended on.
+	 * @param n - the number of queens.
+	 * @param random - the source of randomness.
+	 * @return the board.
+	 */
+	private static State createNearlySolvedBoard(int n, SplittableRandom random) {
+		final int SWAPS_PER_QUEEN = 100;
+		MinConflicts solver = new MinConflicts(n, SWAPS_PER_QUEEN * n, random.split());
+		solver.solve(false);
+		State board = new State(solver.getState());
+		board.moveQueen(random.nextInt(n), random.nextInt(n));
+		return board;
+	}
+
+	/**
+	 * Creates a board with its queens squeezed into a few rows, so most rows
+	 * and diagonals hold three or more queens.
+	 * @param n - the number of queens.
+	 * @param numberOfRows - how many rows the queens are spread over.
+	 * @param random - the source of randomness.
+	 * @return the board.
+	 */
+	private static State createCrowdedBoard(int n, int numberOfRows, SplittableRandom random) {
+		int firstRow = random.nextInt(n);
+		int[] rows = new int[n];
+		for(int column = 0; column < n; ++column) {
+			rows[column] = Math.min(n - 1, firstRow + random.nextInt(numberOfRows));
+		}
+		return new State(rows);
+	}
+}
\ No newline at end of file
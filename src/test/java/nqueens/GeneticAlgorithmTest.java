@@ -0,0 +1,100 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class GeneticAlgorithmTest {
+	private static final int GENERATIONS = 20;
+
+	@Test
+	void theNumberOfThreadsDoesNotChangeTheOffspring() {
+		ForkJoinPool onePool = new ForkJoinPool(1);
+		ForkJoinPool fourPool = new ForkJoinPool(4);
+		try {
+			for(int n : new int[] {8, 100, 300}) {
+				GeneticAlgorithm oneThread = createGeneticAlgorithm(n, onePool);
+				GeneticAlgorithm fourThreads = createGeneticAlgorithm(n, fourPool);
+				for(int generation = 0; generation < GENERATIONS; ++generation) {
+					oneThread.evolveOneGeneration();
+					fourThreads.evolveOneGeneration();
+				}
+				State[] expected = oneThread.getFittestMembers(40);
+				State[] actual = fourThreads.getFittestMembers(40);
+				for(int member = 0; member < expected.length; ++member) {
+					assertEquals(StateTest.countConflicts(expected[member]), expected[member].getCost());
+					assertArrayEquals(getRows(expected[member]), getRows(actual[member]));
+				}
+			}
+		}finally {
+			onePool.shutdown();
+			fourPool.shutdown();
+		}
+	}
+
+	@Test
+	void everyScoredBoardIsCounted() {
+		final int matingsPerGeneration = 29 + 31/2, refinedPerGeneration = 12;
+		//the first half keeps one child per mating but the last, the second half both
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for(ForkJoinPool breedingPool : new ForkJoinPool[] {null, pool}) {
+				GeneticAlgorithm simulator = new GeneticAlgorithm(200, GENERATIONS, 30, 60, 0.6, new SplittableRandom(14), breedingPool);
+				simulator.useLocalRefinement(0.2, 5);
+				long[] boardsEvaluated = new long[GENERATIONS + 1];
+				simulator.setListener(new SolverListener() {
+					@Override
+					public void generationBred(int generation, int bestFitness, double meanFitness, long boardsEvaluatedSoFar) {
+						boardsEvaluated[generation] = boardsEvaluatedSoFar;
+					}
+				});
+				simulator.solve(false);
+				for(int generation = 1; generation <= GENERATIONS; ++generation) {
+					assertEquals(generation * (2L*matingsPerGeneration + refinedPerGeneration), boardsEvaluated[generation]);
+				}
+			}
+		}finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void boardsWithMorePairsThanAnIntHoldsAreRejected() {
+		assertEquals(65_536L*65_535/2, new FitnessEvaluator(GeneticAlgorithm.MAX_QUEENS).getFitness(new int[GeneticAlgorithm.MAX_QUEENS], 0)
+				+ new State(new int[GeneticAlgorithm.MAX_QUEENS]).getCost());
+		assertThrows(IllegalArgumentException.class, () -> new FitnessEvaluator(GeneticAlgorithm.MAX_QUEENS + 1));
+		assertThrows(IllegalArgumentException.class, () -> new GeneticAlgorithm(GeneticAlgorithm.MAX_QUEENS + 1, 1));
+		assertThrows(IllegalArgumentException.class, 
+				() -> new IslandGeneticAlgorithm(GeneticAlgorithm.MAX_QUEENS + 1, 1, 2, 1, 1, new SplittableRandom(15)));
+		assertEquals(Integer.MAX_VALUE, new State(new int[GeneticAlgorithm.MAX_QUEENS + 1]).getHighestFitness(GeneticAlgorithm.MAX_QUEENS + 1));
+	}
+
+	/**
+	 * Creates a genetic algorithm breeding enough offspring per generation to
+	 * be split over several tasks.
+	 * @param n - the number of queens.
+	 * @param pool - the pool the offspring are created on.
+	 * @return the genetic algorithm.
+	 */
+	private static GeneticAlgorithm createGeneticAlgorithm(int n, ForkJoinPool pool) {
+		GeneticAlgorithm simulator = new GeneticAlgorithm(n, GENERATIONS, 40, 400, 0.6, new SplittableRandom(13), pool);
+		simulator.rejectDuplicateOffspring(true);
+		return simulator;
+	}
+
+	/**
+	 * Copies the rows of the queens of a board.
+	 * @param state - the board.
+	 * @return the row of the queen in every column.
+	 */
+	private static int[] getRows(State state) {
+		int[] rows = new int[state.getBoardLength()];
+		state.copyQueenPlacements(rows);
+		return rows;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,70 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class PermutationEncodingTest {
+	private static final int GENERATIONS = 60;
+
+	@Test
+	void partiallyMappedCrossoverKeepsOneQueenPerRow() {
+		for(int n = 4; n <= 64; n *= 2) {
+			GeneticAlgorithm simulator = new GeneticAlgorithm(n, GENERATIONS, 30, 60, 0.6, new SplittableRandom(n), null);
+			simulator.usePermutationEncoding();
+			assertPopulationIsPermutations(simulator, 30);
+			for(int generation = 0; generation < GENERATIONS; ++generation) {
+				simulator.evolveOneGeneration();
+				assertPopulationIsPermutations(simulator, 30);
+			}
+		}
+	}
+
+	@Test
+	void refinementAndDuplicateRejectionKeepOneQueenPerRow() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			GeneticAlgorithm simulator = new GeneticAlgorithm(48, GENERATIONS, 40, 200, 0.8, new SplittableRandom(6), pool);
+			simulator.usePermutationEncoding();
+			simulator.useLocalRefinement(0.25, 20);
+			simulator.useTournamentSelection(3);
+			simulator.rejectDuplicateOffspring(true);
+			for(int generation = 0; generation < GENERATIONS; ++generation) {
+				simulator.evolveOneGeneration();
+				assertPopulationIsPermutations(simulator, 40);
+			}
+		}finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void simulatedAnnealingOnlySwapsQueens() {
+		SimulatedAnnealing simulator = new SimulatedAnnealing(60, 20000, new SplittableRandom(7));
+		simulator.usePermutationEncoding();
+		SolveResult result = simulator.solve(Duration.ofMinutes(1), null);
+		StateTest.assertPermutation(result.getBestState());
+		assertEquals(StateTest.countConflicts(result.getBestState()), result.getBestCost());
+	}
+
+	/**
+	 * Checks every member of a population has one queen per row and the fittest
+	 * members come first.
+	 * @param simulator - the genetic algorithm.
+	 * @param populationSize - how many members it keeps.
+	 */
+	private static void assertPopulationIsPermutations(GeneticAlgorithm simulator, int populationSize) {
+		int previousFitness = Integer.MAX_VALUE;
+		for(State member : simulator.getFittestMembers(populationSize)) {
+			StateTest.assertPermutation(member);
+			assertEquals(StateTest.countConflicts(member), member.getCost());
+			assertTrue(member.getFitness() <= previousFitness);
+			previousFitness = member.getFitness();
+		}
+	}
+}
\ No newline at end of file
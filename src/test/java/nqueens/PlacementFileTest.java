@@ -0,0 +1,60 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PlacementFileTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void boardsComeBackInBothForms() throws IOException {
+		SplittableRandom random = new SplittableRandom(16);
+		for(int n : new int[] {1, 8, 1000, 5000}) {
+			State board = new State(n, random);
+			Path text = directory.resolve("board.txt");
+			Path binary = directory.resolve("board.bin");
+			PlacementFile.writeText(text, board);
+			PlacementFile.writeBinary(binary, board);
+			assertArrayEquals(getRows(board), getRows(PlacementFile.read(text)));
+			assertArrayEquals(getRows(board), getRows(PlacementFile.read(binary)));
+			assertEquals(board.getCost(), PlacementFile.read(text).getCost());
+		}
+	}
+
+	@Test
+	void headersPromisingMoreQueensThanTheFileHoldsAreRejected() throws IOException {
+		Path file = directory.resolve("board.txt");
+		Files.write(file, "2000000000\n0 1 2\n".getBytes(StandardCharsets.US_ASCII));
+		IOException e = assertThrows(IOException.class, () -> PlacementFile.read(file));
+		assertEquals(file + " says it holds 2000000000 queens but is too short for them", e.getMessage());
+
+		Files.write(file, "4\n1 3 0".getBytes(StandardCharsets.US_ASCII));
+		assertThrows(IOException.class, () -> PlacementFile.read(file));
+		Files.write(file, "4\n1 3 0 2".getBytes(StandardCharsets.US_ASCII));
+		assertEquals(0, PlacementFile.read(file).getCost());
+		Files.write(file, "3 0 2 4".getBytes(StandardCharsets.US_ASCII));
+		assertThrows(IOException.class, () -> PlacementFile.read(file));
+	}
+
+	/**
+	 * Copies the rows of the queens of a board.
+	 * @param state - the board.
+	 * @return the row of the queen in every column.
+	 */
+	private static int[] getRows(State state) {
+		int[] rows = new int[state.getBoardLength()];
+		state.copyQueenPlacements(rows);
+		return rows;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,151 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SolutionStoreTest {
+	@TempDir
+	Path directory;
+
+	@Test
+	void symmetricSolutionsAreStoredOnce() throws IOException {
+		int[] fundamentalSolutions = {0, 1, 0, 0, 1, 2, 1, 6, 12, 46, 92};
+		int[] allSolutions = {0, 1, 0, 0, 2, 10, 4, 40, 92, 352, 724};
+		Path file = directory.resolve("solutions");
+		try(SolutionStore store = new SolutionStore(file)) {
+			for(int n = 4; n <= 10; ++n) {
+				List<int[]> solutions = findAllSolutions(n);
+				assertEquals(allSolutions[n], solutions.size());
+				int added = 0;
+				for(int[] solution : solutions) {
+					if(store.add(new State(solution))) {
+						++added;
+					}
+				}
+				assertEquals(fundamentalSolutions[n], added);
+				assertEquals(fundamentalSolutions[n], store.getNumberOfStoredSolutions(n));
+				assertEquals(toSet(solutions), toSet(getRows(store.getSolutions(n, Integer.MAX_VALUE))));
+			}
+		}
+	}
+
+	@Test
+	void solutionsSurviveReopening() throws IOException {
+		Path file = directory.resolve("solutions");
+		List<int[]> solutions = findAllSolutions(8);
+		try(SolutionStore store = new SolutionStore(file)) {
+			for(int[] solution : solutions) {
+				store.add(new State(solution));
+			}
+		}
+		try(SolutionStore store = new SolutionStore(file)) {
+			assertEquals(12, store.getNumberOfStoredSolutions(8));
+			assertEquals(toSet(solutions), toSet(getRows(store.getSolutions(8, 92))));
+			assertEquals(10, store.getSolutions(8, 10).size());
+			for(int[] solution : solutions) {
+				assertFalse(store.add(new State(solution)));
+			}
+		}
+	}
+
+	@Test
+	void largeBoardsAndNonSolutions() throws IOException {
+		Path file = directory.resolve("solutions");
+		try(SolutionStore store = new SolutionStore(file)) {
+			assertFalse(store.add(new State(new int[] {0, 1, 2, 3})));
+			List<State> solutions = store.getSolutions(300, 2, new SplittableRandom(10));
+			assertEquals(2, solutions.size());
+			for(State solution : solutions) {
+				assertEquals(0, StateTest.countConflicts(solution));
+			}
+		}
+		try(SolutionStore store = new SolutionStore(file)) {
+			assertEquals(1, store.getNumberOfStoredSolutions(300));
+			assertEquals(0, store.getNumberOfStoredSolutions(4));
+		}
+	}
+
+	@Test
+	void otherFilesAreRejected() throws IOException {
+		Path file = directory.resolve("not a store");
+		Files.write(file, new byte[64]);
+		assertThrows(IOException.class, () -> new SolutionStore(file));
+	}
+
+	/**
+	 * Finds every solution of a board size by backtracking.
+	 * @param n - the number of queens.
+	 * @return the row of the queen in every column, for every solution.
+	 */
+	private static List<int[]> findAllSolutions(int n) {
+		List<int[]> solutions = new ArrayList<>();
+		placeQueens(new int[n], 0, solutions);
+		return solutions;
+	}
+
+	/**
+	 * Places a queen in every free row of a column and carries on with the next column.
+	 * @param rows - the rows of the queens placed so far.
+	 * @param column - the column to place a queen in.
+	 * @param solutions - receives every completed board.
+	 */
+	private static void placeQueens(int[] rows, int column, List<int[]> solutions) {
+		if(column == rows.length) {
+			solutions.add(rows.clone());
+			return;
+		}
+		for(int row = 0; row < rows.length; ++row) {
+			boolean free = true;
+			for(int previous = 0; previous < column && free; ++previous) {
+				free = rows[previous] != row && Math.abs(rows[previous] - row) != column - previous;
+			}
+			if(free) {
+				rows[column] = row;
+				placeQueens(rows, column + 1, solutions);
+			}
+		}
+	}
+
+	/**
+	 * Copies the rows of the queens of boards.
+	 * @param states - the boards.
+	 * @return the row of the queen in every column, for every board.
+	 */
+	private static List<int[]> getRows(List<State> states) {
+		List<int[]> boards = new ArrayList<>();
+		for(State state : states) {
+			int[] rows = new int[state.getBoardLength()];
+			state.copyQueenPlacements(rows);
+			boards.add(rows);
+		}
+		return boards;
+	}
+
+	/**
+	 * Puts boards into a set, so they can be compared regardless of order.
+	 * @param boards - the row of the queen in every column, for every board.
+	 * @return the boards.
+	 */
+	private static Set<List<Integer>> toSet(List<int[]> boards) {
+		Set<List<Integer>> set = new HashSet<>();
+		for(int[] rows : boards) {
+			set.add(Arrays.stream(rows).boxed().toList());
+		}
+		assertEquals(boards.size(), set.size());
+		return set;
+	}
+}
\ No newline at end of file
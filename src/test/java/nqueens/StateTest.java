@@ -0,0 +1,141 @@
+package nqueens;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+class StateTest {
+	private static final int MOVES_PER_BOARD = 2000;
+
+	@Test
+	void movesKeepTheCostOfARecount() {
+		SplittableRandom random = new SplittableRandom(1);
+		for(int n = 1; n <= 40; ++n) {
+			State state = new State(n, random);
+			assertEquals(countConflicts(state), state.getCost());
+			for(int move = 0; move < MOVES_PER_BOARD; ++move) {
+				int column = random.nextInt(n);
+				int newRow = random.nextInt(n);
+				int expectedCost = state.getCost() + state.getCostDelta(column, newRow);
+				state.moveQueen(newRow, column);
+				assertEquals(expectedCost, state.getCost());
+				assertEquals(countConflicts(state), state.getCost());
+			}
+			assertEquals(state.getHighestFitness(n) - state.getCost(), state.getFitness());
+		}
+	}
+
+	@Test
+	void swapsKeepTheCostOfARecount() {
+		SplittableRandom random = new SplittableRandom(2);
+		for(int n = 1; n <= 40; ++n) {
+			State state = new State(n, random);
+			state.generateRandomPermutation(random);
+			for(int swap = 0; swap < MOVES_PER_BOARD; ++swap) {
+				state.swapQueens(random.nextInt(n), random.nextInt(n));
+				assertEquals(countConflicts(state), state.getCost());
+			}
+			assertPermutation(state);
+		}
+	}
+
+	@Test
+	void undoneProposalsLeaveTheBoardAsItWas() {
+		SplittableRandom random = new SplittableRandom(3);
+		int n = 30;
+		State state = new State(n, random);
+		for(int proposal = 0; proposal < MOVES_PER_BOARD; ++proposal) {
+			int[] before = new int[n];
+			state.copyQueenPlacements(before);
+			int costBefore = state.getCost();
+			int newCost;
+			if(random.nextBoolean()) {
+				newCost = state.proposeMove(random.nextInt(n), random.nextInt(n));
+			}else {
+				newCost = state.proposeSwap(random.nextInt(n), random.nextInt(n));
+			}
+			assertEquals(countConflicts(state), newCost);
+
+			if(random.nextBoolean()) {
+				state.undoMove();
+				int[] after = new int[n];
+				state.copyQueenPlacements(after);
+				assertArrayEquals(before, after);
+				assertEquals(costBefore, state.getCost());
+			}else {
+				state.acceptMove();
+				assertEquals(newCost, state.getCost());
+			}
+		}
+		assertEquals(MOVES_PER_BOARD, state.getNumberOfMovesProposed());
+	}
+
+	@Test
+	void attemptedMovesAreUndoneWhenRejected() {
+		SplittableRandom random = new SplittableRandom(4);
+		int n = 50;
+		State state = new State(n, random);
+		int cost = state.getCost();
+		for(int attempt = 0; attempt < MOVES_PER_BOARD; ++attempt) {
+			cost = attempt % 2 == 0 ? state.attemptMove(cost, 0.5, random) : state.attemptSwap(cost, 0.5, random);
+			assertEquals(state.getCost(), cost);
+			assertEquals(countConflicts(state), cost);
+		}
+	}
+
+	@Test
+	void settingPlacementsRecountsTheCost() {
+		SplittableRandom random = new SplittableRandom(5);
+		int n = 25;
+		State state = new State(n, random);
+		int[] boards = new int[3*n];
+		for(int gene = 0; gene < boards.length; ++gene) {
+			boards[gene] = random.nextInt(n);
+		}
+		state.setQueenPlacements(boards, n);
+		assertEquals(countConflicts(state), state.getCost());
+		int[] copy = new int[3*n];
+		state.copyQueenPlacements(copy, 2*n);
+		for(int column = 0; column < n; ++column) {
+			assertEquals(boards[n + column], copy[2*n + column]);
+		}
+	}
+
+	/**
+	 * Counts the pairs of queens sharing a row or a diagonal by looking at every pair.
+	 * @param state - the board.
+	 * @return the cost the board should have.
+	 */
+	static int countConflicts(State state) {
+		int n = state.getBoardLength();
+		int conflicts = 0;
+		for(int first = 0; first < n; ++first) {
+			for(int second = first + 1; second < n; ++second) {
+				int firstRow = state.getQueenPlacement(first);
+				int secondRow = state.getQueenPlacement(second);
+				if(firstRow == secondRow || Math.abs(firstRow - secondRow) == second - first) {
+					++conflicts;
+				}
+			}
+		}
+		return conflicts;
+	}
+
+	/**
+	 * Checks that a board has exactly one queen in every row.
+	 * @param state - the board.
+	 */
+	static void assertPermutation(State state) {
+		int n = state.getBoardLength();
+		boolean[] rowTaken = new boolean[n];
+		for(int column = 0; column < n; ++column) {
+			int row = state.getQueenPlacement(column);
+			assertFalse(rowTaken[row], "two queens in row " + row);
+			rowTaken[row] = true;
+		}
+	}
+}
\ No newline at end of file